@@ -0,0 +1,60 @@
+package io.jenkins.extensions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jenkins.extensions.dto.ScriptModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 호출마다 ObjectMapper 를 만드는 방식과 JsonSupport 의 공유 reader/writer 를 비교하는 JMH 벤치마크
+ *
+ * 시나리오 10개 x 단계 8개 스크립트를 읽고 들여쓰기 포함으로 다시 쓰는 왕복 한 번을 1 op 로 잽니다.
+ * 일반 빌드에는 포함되지 않고 benchmark 프로필로 실행합니다: {@code mvn -B -Pbenchmark test-compile exec:exec}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSupportBenchmark {
+    private String json;
+
+    @Setup
+    public void setUp() throws Exception {
+        List<ScriptModel.Scenario> scenarios = new ArrayList<>();
+        for (int s = 1; s <= 10; s++) {
+            List<String> steps = new ArrayList<>();
+            for (int t = 1; t <= 8; t++) {
+                steps.add("단계 " + t + ": 로그인 페이지에서 '확인' 버튼을 누르고 결과 메시지를 확인한다");
+            }
+            scenarios.add(new ScriptModel.Scenario("시나리오 " + s, steps));
+        }
+        json = JsonSupport.SCRIPT_WRITER.writeValueAsString(new ScriptModel("벤치마크 스크립트", scenarios));
+    }
+
+    /** 변경 전: ScriptModel.fromJson/toJson 이 호출마다 새 ObjectMapper 를 만들던 방식 */
+    @Benchmark
+    public String newMapperPerCall() throws Exception {
+        ScriptModel m = new ObjectMapper().readValue(json, ScriptModel.class);
+        return new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(m);
+    }
+
+    @Benchmark
+    public String sharedReaderWriter() throws Exception {
+        ScriptModel m = JsonSupport.SCRIPT_READER.readValue(json);
+        return JsonSupport.SCRIPT_WRITER.writeValueAsString(m);
+    }
+}
@@ -1,17 +1,32 @@
 package io.jenkins.actions;
 
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import hudson.FilePath;
+import hudson.Util;
+import hudson.model.Item;
 import hudson.model.Run;
+import hudson.util.CopyOnWriteList;
+import hudson.util.HttpResponses;
+import org.apache.commons.io.IOUtils;
 import org.kohsuke.stapler.DataBoundConstructor;
 import jenkins.model.RunAction2;
+import org.kohsuke.stapler.HttpResponse;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.Stapler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 
 public class BuildReportAction implements RunAction2 {
-    @SuppressFBWarnings("URF_UNREAD_FIELD")
     private transient Run<?,?> run;
     private final String scriptPath;
-    private final String status;
+    private volatile String status;
     private final long timestamp;
+    /** 스크립트별 진행 상황 (runMST 가 실행 중에 채움, 이전 빌드에는 없음) */
+    private CopyOnWriteList<ScriptProgress> scripts;
 
     @DataBoundConstructor
     public BuildReportAction(String scriptPath, String status) {
@@ -28,18 +43,85 @@ public class BuildReportAction implements RunAction2 {
         return status;
     }
 
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public boolean isRunning() {
+        return ScriptProgress.RUNNING.equals(status);
+    }
+
+    /**
+     * 실행 중으로 남은 진행 기록을 종료 상태로 정리 (컨트롤러 재시작으로 실행을 이어갈 수 없을 때)
+     */
+    public synchronized void abort(String status) {
+        this.status = status;
+        for (ScriptProgress p : getScripts()) {
+            if (p.isRunning()) p.finish(status);
+        }
+    }
+
     public Date getTimestamp() {
         return new Date(timestamp);
     }
 
+    public List<ScriptProgress> getScripts() {
+        return scripts != null ? scripts.getView() : Collections.emptyList();
+    }
+
+    /**
+     * 진행 상황을 기록할 스크립트 추가 (liveDir 은 에이전트의 결과 작업 폴더)
+     */
+    public synchronized ScriptProgress addScript(String name, FilePath liveDir) {
+        if (scripts == null) scripts = new CopyOnWriteList<>();
+        ScriptProgress p = new ScriptProgress(name, liveDir);
+        scripts.add(p);
+        return p;
+    }
+
+    /**
+     * 진행 페이지의 스크린샷
+     * 실행 중에는 에이전트 작업 폴더에서 읽고, 결과를 가져온 뒤에는 MCP Reports 로 넘깁니다.
+     * URL: /job/.../N/mcp-report/screenshot?script=a.json&amp;scenario=1&amp;file=1.png
+     */
+    public HttpResponse doScreenshot(@QueryParameter String script, @QueryParameter int scenario,
+                                     @QueryParameter String file) throws IOException, InterruptedException {
+        if (run != null) run.checkPermission(Item.READ);
+        if (file == null || file.isEmpty() || file.contains("/") || file.contains("\\") || file.startsWith(".")) {
+            return HttpResponses.error(400, "잘못된 파일 이름");
+        }
+        for (ScriptProgress p : getScripts()) {
+            if (!p.getName().equals(script) || p.getBuild() == null) continue;
+            FilePath live = p.getLiveDir();
+            if (live == null) {
+                return HttpResponses.redirectTo(Stapler.getCurrentRequest().getContextPath()
+                        + "/mcp-reports/screenshot?build=" + Util.rawEncode(p.getBuild())
+                        + "&scenario=" + scenario + "&file=" + Util.rawEncode(file));
+            }
+            FilePath img = live.child(p.getBuild()).child(String.valueOf(scenario)).child("screenshots").child(file);
+            if (!img.exists()) break;
+            return (req, rsp, node) -> {
+                rsp.setContentType(file.endsWith(".jpg") || file.endsWith(".jpeg") ? "image/jpeg" : "image/png");
+                rsp.setHeader("Cache-Control", "private, max-age=60");
+                try (InputStream in = img.read(); OutputStream out = rsp.getOutputStream()) {
+                    IOUtils.copy(in, out);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            };
+        }
+        return HttpResponses.notFound();
+    }
+
     @Override
     public String getIconFileName() {
-        return null; // hidden in UI
+        return "clipboard.png";
     }
 
     @Override
     public String getDisplayName() {
-        return null;
+        return "MCP Test Result";
     }
 
     @Override
@@ -56,4 +138,4 @@ public class BuildReportAction implements RunAction2 {
     public void onLoad(Run<?,?> r) {
         this.run = r;
     }
-}
\ No newline at end of file
+}
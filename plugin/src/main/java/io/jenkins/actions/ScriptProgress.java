@@ -0,0 +1,181 @@
+package io.jenkins.actions;
+
+import hudson.FilePath;
+import hudson.util.CopyOnWriteList;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONException;
+import net.sf.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * runMST 가 실행한 스크립트 하나의 진행 상황
+ *
+ * 러너가 표준 출력으로 보내는 `MST-EVENT {json}` 줄을 받아 시나리오/단계 상태를 갱신합니다.
+ * 빌드 기록(build.xml)에 함께 저장되며, 실행 중인 동안만 에이전트의 결과 작업 폴더를 알고 있습니다.
+ */
+public class ScriptProgress {
+    /** 이 접두어로 시작하는 출력 줄은 빌드 로그 대신 진행 이벤트로 처리 */
+    public static final String EVENT_PREFIX = "MST-EVENT ";
+
+    public static final String RUNNING = "RUNNING";
+
+    private final String name;
+    private volatile String status = RUNNING;
+    /** $JENKINS_HOME/results 아래에 생길 결과 폴더 이름 (run_start 이벤트로 받음) */
+    private volatile String build;
+    private volatile int total;
+    private final CopyOnWriteList<ScenarioProgress> scenarios = new CopyOnWriteList<>();
+    /** 실행 중 스크린샷을 읽어 올 에이전트의 결과 작업 폴더 (결과를 가져온 뒤에는 null) */
+    private transient volatile FilePath liveDir;
+
+    public ScriptProgress(String name, FilePath liveDir) {
+        this.name = name;
+        this.liveDir = liveDir;
+    }
+
+    public String getName() { return name; }
+    public String getStatus() { return status; }
+    public String getBuild() { return build; }
+    public int getTotal() { return total; }
+    public List<ScenarioProgress> getScenarios() { return scenarios.getView(); }
+    public boolean isRunning() { return RUNNING.equals(status); }
+
+    FilePath getLiveDir() { return liveDir; }
+
+    /**
+     * 스크립트 종료 (결과는 이미 컨트롤러로 옮겨졌으므로 작업 폴더 참조를 끊음)
+     */
+    public void finish(String status) {
+        this.status = status;
+        this.liveDir = null;
+        for (ScenarioProgress s : scenarios) {
+            if (s.isRunning()) s.status = "FAIL";
+        }
+    }
+
+    /**
+     * 이벤트 한 줄(접두어 제외)을 반영하고 빌드 로그에 남길 요약을 반환 (남길 내용이 없으면 null)
+     */
+    public String onEvent(String json) {
+        JSONObject o;
+        try {
+            o = JSONObject.fromObject(json);
+        } catch (JSONException e) {
+            // 형식이 깨진 줄은 버리지 않고 그대로 로그에 남김
+            return EVENT_PREFIX + json;
+        }
+        switch (o.optString("event")) {
+            case "run_start":
+                build = o.optString("build", null);
+                total = o.optInt("scenarios");
+                return "▶ 진행: 시나리오 " + total + "개 실행 시작 (" + build + ")";
+            case "scenario_start": {
+                ScenarioProgress s = new ScenarioProgress(o.optInt("scenario"), o.optString("title"), o.optInt("steps"));
+                scenarios.add(s);
+                return "▶ 진행: [" + s.index + "/" + total + "] " + s.title;
+            }
+            case "step": {
+                ScenarioProgress s = scenario(o.optInt("scenario"));
+                if (s == null) return null;
+                double modelMs = o.optDouble("modelMs", 0);
+                double browserMs = o.optDouble("browserMs", 0);
+                List<String> shots = new ArrayList<>();
+                JSONArray arr = o.optJSONArray("screenshots");
+                if (arr != null) {
+                    for (int i = 0; i < arr.size(); i++) {
+                        shots.add(arr.getString(i));
+                    }
+                }
+                StepProgress st = new StepProgress(o.optInt("step"), o.optString("action"), o.optBoolean("ok", true),
+                        o.optDouble("durationMs", modelMs + browserMs), modelMs, browserMs,
+                        o.optBoolean("cached"), shots);
+                s.steps.add(st);
+                return (st.ok ? "▶" : "❌") + " 진행: [" + s.index + "] 단계 " + st.step + " " + st.action
+                        + " (" + seconds(st.durationMs) + "초)";
+            }
+            case "scenario_end": {
+                ScenarioProgress s = scenario(o.optInt("scenario"));
+                if (s == null) return null;
+                s.status = o.optBoolean("status") ? "SUCCESS" : "FAIL";
+                s.duration = o.optDouble("duration", Double.NaN);
+                s.feedback = o.optString("feedback", null);
+                return ("SUCCESS".equals(s.status) ? "✅" : "❌") + " 진행: [" + s.index + "/" + total + "] "
+                        + s.title + " (" + seconds(s.duration * 1000) + "초)";
+            }
+            default:
+                return null;
+        }
+    }
+
+    private ScenarioProgress scenario(int index) {
+        for (ScenarioProgress s : scenarios) {
+            if (s.index == index) return s;
+        }
+        return null;
+    }
+
+    private static String seconds(double ms) {
+        return Double.isNaN(ms) ? "-" : String.format(Locale.ROOT, "%.1f", ms / 1000);
+    }
+
+    public static class ScenarioProgress {
+        private final int index;
+        private final String title;
+        private final int stepCount;
+        private volatile String status = RUNNING;
+        private volatile double duration = Double.NaN;
+        private volatile String feedback;
+        private final CopyOnWriteList<StepProgress> steps = new CopyOnWriteList<>();
+
+        ScenarioProgress(int index, String title, int stepCount) {
+            this.index = index;
+            this.title = title;
+            this.stepCount = stepCount;
+        }
+
+        public int getIndex() { return index; }
+        public String getTitle() { return title; }
+        public int getStepCount() { return stepCount; }
+        public String getStatus() { return status; }
+        public double getDuration() { return duration; }
+        public String getSeconds() { return seconds(duration * 1000); }
+        public String getFeedback() { return feedback; }
+        public List<StepProgress> getSteps() { return steps.getView(); }
+        public boolean isRunning() { return RUNNING.equals(status); }
+    }
+
+    public static class StepProgress {
+        private final int step;
+        private final String action;
+        private final boolean ok;
+        private final double durationMs;
+        private final double modelMs;
+        private final double browserMs;
+        private final boolean cached;
+        private final List<String> screenshots;
+
+        StepProgress(int step, String action, boolean ok, double durationMs, double modelMs, double browserMs,
+                     boolean cached, List<String> screenshots) {
+            this.step = step;
+            this.action = action;
+            this.ok = ok;
+            this.durationMs = durationMs;
+            this.modelMs = modelMs;
+            this.browserMs = browserMs;
+            this.cached = cached;
+            this.screenshots = screenshots;
+        }
+
+        public int getStep() { return step; }
+        public String getAction() { return action; }
+        public boolean isOk() { return ok; }
+        public String getSeconds() { return seconds(durationMs); }
+        public double getModelMs() { return modelMs; }
+        public double getBrowserMs() { return browserMs; }
+        public boolean isCached() { return cached; }
+        public List<String> getScreenshots() { return screenshots; }
+    }
+}
@@ -0,0 +1,317 @@
+package io.jenkins.extensions;
+
+import io.jenkins.extensions.dto.BuildEntry;
+import jenkins.model.Jenkins;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * $JENKINS_HOME/results 아래 빌드 폴더 목록의 인덱스
+ *
+ * 빌드가 끝날 때 추가/삭제 기록(폴더명, 시각, 스크립트, 상태)을 append-only 로그(results/.catalog)에 남기고,
+ * 목록 조회는 메모리에 올려둔 정렬된 목록에서 바로 응답합니다.
+ * 로그가 없으면 처음 한 번만 디렉터리를 스캔해 만듭니다.
+ * 폴더를 직접 지우거나 복사해 넣은 경우는 results 디렉터리의 수정 시각이 바뀔 때마다 목록과 맞춥니다.
+ */
+public final class BuildCatalog {
+    private static final Logger LOGGER = Logger.getLogger(BuildCatalog.class.getName());
+    private static final String FILE_NAME = ".catalog";
+    /** 삭제 기록이 이만큼 쌓이면 로그를 현재 상태로 다시 씀 */
+    private static final int COMPACT_THRESHOLD = 500;
+
+    private static BuildCatalog instance;
+
+    private final File rootDir;
+    private final File logFile;
+    private final Map<String, BuildEntry> byDir = new HashMap<>();
+    /** 빌드 번호 내림차순으로 정렬된 목록 (변경 시 null 로 무효화) */
+    private List<BuildEntry> sorted;
+    private int removedSinceCompact;
+    /** 변경될 때마다 증가 (ETag 용) */
+    private long version;
+    private long lastModified;
+    /** 마지막으로 폴더 목록과 맞춰 본 때의 results 디렉터리 수정 시각 */
+    private long reconciledAt;
+
+    private BuildCatalog(File rootDir) {
+        this.rootDir = rootDir;
+        this.logFile = new File(rootDir, FILE_NAME);
+    }
+
+    public static synchronized BuildCatalog get() {
+        if (instance == null) {
+            BuildCatalog c = new BuildCatalog(new File(Jenkins.get().getRootDir(), "results"));
+            c.load();
+            instance = c;
+        }
+        instance.reconcile();
+        return instance;
+    }
+
+    /**
+     * 폴더 이름의 마지막 '_' 뒤 숫자를 빌드 번호로 사용 (없으면 -1)
+     */
+    static int parseNumber(String dirName) {
+        String numPart = numberPart(dirName);
+        try {
+            return Integer.parseInt(numPart);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static String numberPart(String dirName) {
+        int idx = dirName.lastIndexOf('_');
+        if (idx >= 0 && idx < dirName.length() - 1) {
+            return dirName.substring(idx + 1);
+        }
+        return dirName;
+    }
+
+    /**
+     * 목록 정렬 순서: 빌드 번호 내림차순, 같으면 폴더명 내림차순
+     */
+    private static final Comparator<BuildEntry> ORDER = Comparator.comparingInt(BuildEntry::getNumber).reversed()
+            .thenComparing(BuildEntry::getDirName, Comparator.reverseOrder());
+
+    /**
+     * 빌드 번호 내림차순 전체 목록
+     */
+    public synchronized List<BuildEntry> list() {
+        if (sorted == null) {
+            List<BuildEntry> l = new ArrayList<>(byDir.values());
+            l.sort(ORDER);
+            sorted = Collections.unmodifiableList(l);
+        }
+        return sorted;
+    }
+
+    /**
+     * offset 부터 limit 개 (정렬: "number" 빌드 번호 내림차순, "when" 실행 시각 내림차순)
+     */
+    public List<BuildEntry> page(int offset, int limit, String sort) {
+        List<BuildEntry> all = list();
+        if ("when".equals(sort)) {
+            all = new ArrayList<>(all);
+            all.sort(Comparator.comparing(BuildEntry::getWhen).reversed());
+        }
+        int from = Math.max(0, Math.min(offset, all.size()));
+        int to = Math.min(all.size(), from + Math.max(0, limit));
+        return all.subList(from, to);
+    }
+
+    /**
+     * 조건에 맞는 빌드를 after 다음부터 limit 개 (정렬 순서는 list() 와 같음)
+     *
+     * @param after  이전 페이지의 마지막 항목 (첫 페이지는 null)
+     * @param script 스크립트 파일명 부분 일치 (null 이면 전체)
+     * @param status SUCCESS | FAIL (null 이면 전체)
+     * @param from   이 시각 이후 (null 이면 제한 없음)
+     * @param to     이 시각 이전 (null 이면 제한 없음)
+     */
+    public List<BuildEntry> query(BuildEntry after, String script, String status, Date from, Date to, int limit) {
+        List<BuildEntry> out = new ArrayList<>();
+        for (BuildEntry e : list()) {
+            if (after != null && ORDER.compare(e, after) <= 0) continue;
+            if (script != null && (e.getScript() == null || !e.getScript().contains(script))) continue;
+            if (status != null && !status.equalsIgnoreCase(e.getStatus())) continue;
+            if (from != null && e.getWhen().before(from)) continue;
+            if (to != null && e.getWhen().after(to)) continue;
+            out.add(e);
+            if (out.size() >= limit) break;
+        }
+        return out;
+    }
+
+    public synchronized BuildEntry find(String dirName) {
+        return byDir.get(dirName);
+    }
+
+    public synchronized int size() {
+        return byDir.size();
+    }
+
+    /**
+     * 변경 횟수 (캐시 검증용)
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * 마지막 변경 시각 (epoch millis)
+     */
+    public synchronized long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * 결과 폴더가 새로 생겼을 때 호출
+     */
+    public synchronized void record(String dirName, Date when, String script, String status) {
+        BuildEntry e = newEntry(dirName, when, script, status);
+        byDir.put(dirName, e);
+        touch();
+        append(format(e));
+    }
+
+    /**
+     * 결과 폴더가 삭제되었을 때 호출
+     */
+    public synchronized void remove(String dirName) {
+        if (byDir.remove(dirName) == null) return;
+        touch();
+        append("-\t" + dirName);
+        if (++removedSinceCompact >= COMPACT_THRESHOLD) {
+            compact();
+        }
+    }
+
+    /**
+     * 디렉터리 수정 시각이 바뀌었으면 폴더 목록과 비교해 빠진 항목은 추가하고, 없어진 항목은 삭제
+     * 압축 보관된 빌드는 폴더가 없어도 목록에 남깁니다.
+     */
+    synchronized void reconcile() {
+        long mtime = rootDir.lastModified();
+        if (mtime == reconciledAt) return;
+        File[] dirs = rootDir.listFiles(f -> f.isDirectory() && !f.getName().startsWith("."));
+        if (dirs == null) return;
+        reconciledAt = mtime;
+        Set<String> onDisk = new HashSet<>();
+        int added = 0;
+        for (File dir : dirs) {
+            onDisk.add(dir.getName());
+            if (!byDir.containsKey(dir.getName())) {
+                BuildEntry e = scanned(dir);
+                byDir.put(e.getDirName(), e);
+                append(format(e));
+                added++;
+            }
+        }
+        int removed = 0;
+        File archive = new File(rootDir, ResultArchive.DIR);
+        for (String name : new ArrayList<>(byDir.keySet())) {
+            if (onDisk.contains(name) || new File(archive, name + ".zip").isFile()) continue;
+            remove(name);
+            removed++;
+        }
+        if (added > 0) touch();
+        if (added > 0 || removed > 0) {
+            LOGGER.info("빌드 인덱스를 결과 폴더와 맞췄습니다 (추가 " + added + ", 삭제 " + removed + ")");
+        }
+    }
+
+    private void touch() {
+        sorted = null;
+        version++;
+        // ETag 로 쓰이므로 같은 밀리초 안의 변경도 구분되도록 항상 증가
+        lastModified = Math.max(System.currentTimeMillis(), lastModified + 1);
+    }
+
+    private static BuildEntry newEntry(String dirName, Date when, String script, String status) {
+        return new BuildEntry(dirName, parseNumber(dirName), "Build " + numberPart(dirName), when, script, status);
+    }
+
+    /**
+     * 로그 한 줄: +, 폴더명, 시각, 스크립트, 상태 (탭 구분, 값이 없으면 빈 칸)
+     */
+    private static String format(BuildEntry e) {
+        return "+\t" + e.getDirName() + "\t" + e.getWhen().getTime()
+                + "\t" + (e.getScript() != null ? e.getScript() : "")
+                + "\t" + (e.getStatus() != null ? e.getStatus() : "");
+    }
+
+    private static String emptyToNull(String[] parts, int i) {
+        return parts.length > i && !parts[i].isEmpty() ? parts[i] : null;
+    }
+
+    private void load() {
+        if (!logFile.isFile()) {
+            rescan();
+            return;
+        }
+        try (BufferedReader br = Files.newBufferedReader(logFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] parts = line.split("\t");
+                if (parts.length >= 3 && "+".equals(parts[0])) {
+                    byDir.put(parts[1], newEntry(parts[1], new Date(Long.parseLong(parts[2])),
+                            emptyToNull(parts, 3), emptyToNull(parts, 4)));
+                } else if (parts.length >= 2 && "-".equals(parts[0])) {
+                    byDir.remove(parts[1]);
+                    removedSinceCompact++;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "빌드 인덱스를 읽지 못해 다시 스캔합니다: " + logFile, e);
+            byDir.clear();
+            rescan();
+        }
+        lastModified = logFile.lastModified();
+    }
+
+    /**
+     * 결과 디렉터리를 한 번 스캔해 인덱스를 새로 만듦
+     */
+    private void rescan() {
+        byDir.clear();
+        // .store 등 내부용 폴더 제외
+        File[] dirs = rootDir.listFiles(f -> f.isDirectory() && !f.getName().startsWith("."));
+        if (dirs != null) {
+            for (File dir : dirs) {
+                byDir.put(dir.getName(), scanned(dir));
+            }
+        }
+        reconciledAt = rootDir.lastModified();
+        touch();
+        compact();
+    }
+
+    /**
+     * 로그에 없는 폴더의 항목 (스크립트/상태는 알 수 없음)
+     */
+    private static BuildEntry scanned(File dir) {
+        String name = dir.getName();
+        // result.json 확인
+        File jsonFile = new File(new File(dir, numberPart(name)), "result.json");
+        Date when = new Date(jsonFile.exists() ? jsonFile.lastModified() : dir.lastModified());
+        return newEntry(name, when, null, null);
+    }
+
+    private void compact() {
+        if (!rootDir.isDirectory()) return;
+        File tmp = new File(rootDir, FILE_NAME + ".tmp");
+        try (BufferedWriter w = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8)) {
+            for (BuildEntry e : byDir.values()) {
+                w.write(format(e));
+                w.newLine();
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "빌드 인덱스 쓰기 실패: " + tmp, e);
+            return;
+        }
+        try {
+            Files.move(tmp.toPath(), logFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            removedSinceCompact = 0;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "빌드 인덱스 교체 실패: " + logFile, e);
+        }
+    }
+
+    private void append(String line) {
+        if (!rootDir.isDirectory() && !rootDir.mkdirs()) return;
+        try {
+            Files.write(logFile.toPath(), (line + "\n").getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "빌드 인덱스 기록 실패: " + logFile, e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package io.jenkins.extensions;
+
+import org.kohsuke.stapler.HttpResponse;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 파일을 메모리에 올리지 않고 그대로 스트리밍하는 응답
+ *
+ * 결과 파일은 한 번 쓰이면 바뀌지 않으므로 크기+수정 시각으로 ETag 를 만들어
+ * 조건부 요청에는 304 를, 단일 Range 요청에는 206 으로 일부만 돌려줍니다.
+ */
+final class FileStreamResponse implements HttpResponse {
+    /** 브라우저 캐시 유지 시간 (초) */
+    private static final int MAX_AGE = 86400;
+    private static final int BUFFER = 64 * 1024;
+
+    private final File file;
+    private final String contentType;
+
+    FileStreamResponse(File file, String contentType) {
+        this.file = file;
+        this.contentType = contentType;
+    }
+
+    @Override
+    public void generateResponse(StaplerRequest req, StaplerResponse rsp, Object node) throws IOException {
+        long length = file.length();
+        long lastModified = file.lastModified();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        rsp.setHeader("ETag", etag);
+        rsp.setDateHeader("Last-Modified", lastModified);
+        rsp.setHeader("Cache-Control", "private, max-age=" + MAX_AGE);
+        rsp.setHeader("Accept-Ranges", "bytes");
+
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        long ifModifiedSince = req.getDateHeader("If-Modified-Since");
+        if (ifNoneMatch != null ? ifNoneMatch.equals(etag)
+                : ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000) {
+            rsp.setStatus(304);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = req.getHeader("Range");
+        String ifRange = req.getHeader("If-Range");
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] r = parseRange(range, length);
+            if (r == null) {
+                rsp.setHeader("Content-Range", "bytes */" + length);
+                rsp.sendError(416);
+                return;
+            }
+            start = r[0];
+            end = r[1];
+            rsp.setStatus(206);
+            rsp.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + length);
+        }
+
+        rsp.setContentType(contentType);
+        rsp.setHeader("Content-Length", String.valueOf(end - start + 1));
+        if ("HEAD".equals(req.getMethod())) return;
+
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+             InputStream in = Channels.newInputStream(ch.position(start))) {
+            OutputStream out = rsp.getOutputStream();
+            byte[] buf = new byte[BUFFER];
+            long remaining = end - start + 1;
+            while (remaining > 0) {
+                int n = in.read(buf, 0, (int) Math.min(buf.length, remaining));
+                if (n < 0) break;
+                out.write(buf, 0, n);
+                remaining -= n;
+            }
+        }
+    }
+
+    /**
+     * "bytes=a-b", "bytes=a-", "bytes=-n" 중 하나만 지원 (여러 구간 요청은 만족할 수 없음으로 처리)
+     *
+     * @return {시작, 끝(포함)} 또는 만족할 수 없으면 null
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0 || length == 0) return null;
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) return null;
+        try {
+            String a = spec.substring(0, dash).trim();
+            String b = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (a.isEmpty()) {
+                long suffix = Long.parseLong(b);
+                if (suffix <= 0) return null;
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(a);
+                end = b.isEmpty() ? length - 1 : Math.min(Long.parseLong(b), length - 1);
+            }
+            if (start < 0 || start > end || start >= length) return null;
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -2,10 +2,13 @@ package io.jenkins.extensions;
 
 import hudson.Extension;
 import hudson.FilePath;
+import hudson.Util;
 import hudson.model.DirectoryBrowserSupport;
 import hudson.model.RootAction;
 import io.jenkins.extensions.dto.BuildEntry;
 import io.jenkins.extensions.dto.ReportDetail;
+import io.jenkins.extensions.dto.ScenarioSummary;
+import io.jenkins.extensions.dto.StepMetrics;
 import jenkins.model.Jenkins;
 import org.kohsuke.stapler.HttpResponse;
 import org.kohsuke.stapler.QueryParameter;
@@ -13,14 +16,19 @@ import hudson.util.HttpResponses;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.Base64;
 
+import org.apache.commons.io.IOUtils;
+import net.sf.json.JSONArray;
 import net.sf.json.JSONObject;
 import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
 
 @Extension
 public class GlobalReportAction implements RootAction {
@@ -28,75 +36,216 @@ public class GlobalReportAction implements RootAction {
     @Override public String getDisplayName()    { return "MCP Reports"; }
     @Override public String getUrlName()        { return "mcp-reports"; }
 
+    /** 목록 한 페이지에 보여줄 빌드 수 */
+    public static final int PAGE_SIZE = 50;
+    /** api 한 번에 돌려줄 수 있는 최대 빌드 수 */
+    public static final int API_MAX_LIMIT = 500;
+
+    private static final ReportDetailCache DETAIL_CACHE = new ReportDetailCache(ReportDetailCache.MAX_ENTRIES);
+
     /**
-     * 'results' 디렉토리에서 빌드 폴더 스캔
+     * 'results' 디렉토리의 빌드 목록 (BuildCatalog 인덱스에서 조회)
      * 마지막 '_' 뒤 숫자를 빌드 번호로 사용
      */
     public List<BuildEntry> getBuilds() {
-        File rootDir = new File(Jenkins.get().getRootDir(), "results");
-        if (!rootDir.isDirectory()) {
-            return Collections.emptyList();
-        }
-        File[] dirs = rootDir.listFiles(File::isDirectory);
-        if (dirs == null) {
-            return Collections.emptyList();
+        return BuildCatalog.get().list();
+    }
+
+    /**
+     * 페이지 단위 빌드 목록 (page 는 0부터, sort 는 number | when)
+     */
+    public List<BuildEntry> getBuildPage(int page, String sort) {
+        return BuildCatalog.get().page(Math.max(0, page) * PAGE_SIZE, PAGE_SIZE, sort);
+    }
+
+    public int getPageCount() {
+        return Math.max(1, (BuildCatalog.get().size() + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    public int parsePage(String page) {
+        try {
+            return page == null ? 0 : Math.max(0, Integer.parseInt(page));
+        } catch (NumberFormatException e) {
+            return 0;
         }
-        List<BuildEntry> list = new ArrayList<>();
-        for (File dir : dirs) {
-            String name = dir.getName();
-            String numPart = name;
-            int idx = name.lastIndexOf('_');
-            if (idx >= 0 && idx < name.length() - 1) {
-                numPart = name.substring(idx + 1);
-            }
-            int buildNum;
-            try {
-                buildNum = Integer.parseInt(numPart);
-            } catch (NumberFormatException e) {
-                buildNum = -1;
-            }
-            // result.json 확인
-            File scenarioDir = new File(dir, numPart);
-            File jsonFile = new File(scenarioDir, "result.json");
-            Date when;
-            if (jsonFile.exists()) {
-                when = new Date(jsonFile.lastModified());
-            } else {
-                when = new Date(dir.lastModified());
+    }
+
+    /**
+     * 빌드 목록 JSON API
+     * URL: /mcp-reports/api?limit=50&cursor=...&script=...&status=SUCCESS|FAIL&from=yyyy-MM-dd&to=yyyy-MM-dd
+     *
+     * 응답의 nextCursor 를 다음 요청의 cursor 로 넘기면 이어서 조회합니다. (마지막 페이지면 null)
+     * 인덱스가 바뀌지 않았으면 ETag / Last-Modified 로 304 를 돌려줍니다.
+     */
+    public void doApi(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        Jenkins.get().checkPermission(Jenkins.READ);
+        BuildCatalog catalog = BuildCatalog.get();
+
+        String cursor = emptyToNull(req.getParameter("cursor"));
+        String script = emptyToNull(req.getParameter("script"));
+        String status = emptyToNull(req.getParameter("status"));
+        String fromParam = emptyToNull(req.getParameter("from"));
+        String toParam = emptyToNull(req.getParameter("to"));
+        int limit = PAGE_SIZE;
+        Date from;
+        Date to;
+        BuildEntry after;
+        try {
+            if (req.getParameter("limit") != null) {
+                limit = Math.max(1, Math.min(API_MAX_LIMIT, Integer.parseInt(req.getParameter("limit"))));
             }
-            list.add(new BuildEntry(name, buildNum, "Build " + numPart, when));
+            from = parseDate(fromParam, false);
+            to = parseDate(toParam, true);
+            after = decodeCursor(cursor);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            rsp.sendError(400, "잘못된 파라미터: " + e.getMessage());
+            return;
         }
-        list.sort(Comparator.comparingInt(BuildEntry::getNumber).reversed());
-        return list;
+
+        // 같은 인덱스 상태 + 같은 질의면 같은 응답
+        // 변경 횟수는 재시작하면 처음부터 다시 세므로, 재시작 후에도 유지되는 마지막 변경 시각과 항목 수로 구분
+        long lastModified;
+        int size;
+        synchronized (catalog) {
+            lastModified = catalog.getLastModified();
+            size = catalog.size();
+        }
+        String etag = "\"" + Long.toHexString(lastModified) + "-" + size + "-" + Integer.toHexString(
+                Objects.hash(cursor, script, status, fromParam, toParam, limit)) + "\"";
+        rsp.setHeader("ETag", etag);
+        rsp.setHeader("Cache-Control", "no-cache");
+        if (lastModified > 0) rsp.setDateHeader("Last-Modified", lastModified);
+
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        long ifModifiedSince = req.getDateHeader("If-Modified-Since");
+        if (ifNoneMatch != null ? ifNoneMatch.equals(etag)
+                : ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000) {
+            rsp.setStatus(304);
+            return;
+        }
+
+        List<BuildEntry> builds = catalog.query(after, script, status, from, to, limit);
+        JSONArray arr = new JSONArray();
+        for (BuildEntry b : builds) {
+            JSONObject o = new JSONObject();
+            o.put("dirName", b.getDirName());
+            o.put("number", b.getNumber());
+            o.put("displayName", b.getDisplayName());
+            o.put("when", b.getWhen().getTime());
+            o.put("script", b.getScript());
+            o.put("status", b.getStatus());
+            arr.add(o);
+        }
+        JSONObject body = new JSONObject();
+        body.put("builds", arr);
+        body.put("nextCursor", builds.size() < limit ? null : encodeCursor(builds.get(builds.size() - 1)));
+
+        rsp.setContentType("application/json;charset=UTF-8");
+        rsp.getWriter().write(body.toString());
+    }
+
+    private static String emptyToNull(String s) {
+        return s == null || s.isEmpty() ? null : s;
+    }
+
+    /**
+     * yyyy-MM-dd (to 는 그날 끝까지 포함) 또는 epoch millis
+     */
+    private static Date parseDate(String s, boolean endOfDay) {
+        if (s == null) return null;
+        if (s.chars().allMatch(Character::isDigit)) return new Date(Long.parseLong(s));
+        LocalDate d = LocalDate.parse(s);
+        if (endOfDay) d = d.plusDays(1);
+        long millis = d.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return new Date(endOfDay ? millis - 1 : millis);
+    }
+
+    /**
+     * 커서는 마지막 항목의 폴더명 (삭제되어도 정렬 위치는 이름으로 계산 가능)
+     */
+    private static String encodeCursor(BuildEntry e) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(e.getDirName().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static BuildEntry decodeCursor(String cursor) {
+        if (cursor == null) return null;
+        String dirName = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        return new BuildEntry(dirName, BuildCatalog.parseNumber(dirName), null, null);
     }
 
     /**
      * 특정 빌드 디렉토리와 시나리오로 JSON 읽어오기
+     * 파싱 결과는 result.json 이 바뀌지 않는 동안 캐시에서 재사용합니다.
      */
     public ReportDetail getReportDetail(@QueryParameter String build,
                                         @QueryParameter String scenario) throws IOException {
-        String base = Jenkins.get().getRootDir().getAbsolutePath();
-        String path = String.join(File.separator, base, "results", build, scenario, "result.json");
-        if (!Files.exists(Paths.get(path))) {
+        if (!isSafeName(build) || !isSafeName(scenario)) {
             return null;
         }
-        String content = new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
-        JSONObject obj = JSONObject.fromObject(content);
-        ReportDetail d = new ReportDetail();
-        d.setTitle(obj.optString("title"));
-        d.setStatus(obj.optBoolean("status"));
-        d.setDuration(obj.optDouble("duration"));
-        d.setFeedback(obj.optString("feedback"));
-        d.setFail(obj.optString("fail", null));
-        d.setScreenshots(new ArrayList<>());
-        obj.optJSONArray("screenshots").forEach(o -> d.getScreenshots().add(o.toString()));
-        return d;
+        ResultStore store = ResultStore.get();
+        if (store.has(build)) {
+            return DETAIL_CACHE.get(build, scenario, store.dataFile(build), f -> store.read(build, scenario));
+        }
+        // 저장소에 없는 빌드는 시나리오 폴더의 result.json 에서 읽음
+        String base = Jenkins.get().getRootDir().getAbsolutePath();
+        File json = new File(String.join(File.separator, base, "results", build, scenario, "result.json"));
+        return DETAIL_CACHE.get(build, scenario, json, ReportDetailReader::read);
+    }
+
+    /**
+     * 시나리오별 추세 (통과율, 소요 시간 p50/p95, flaky 정도)
+     * URL: /mcp-reports/trends?sort=flaky|slow|pass&limit=100
+     */
+    public void doTrends(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        Jenkins.get().checkPermission(Jenkins.READ);
+        int limit = API_MAX_LIMIT;
+        try {
+            if (req.getParameter("limit") != null) limit = Integer.parseInt(req.getParameter("limit"));
+        } catch (NumberFormatException e) {
+            rsp.sendError(400, "잘못된 파라미터: limit");
+            return;
+        }
+        JSONArray arr = new JSONArray();
+        for (Map<String, Object> m : TrendAnalytics.get().compute(req.getParameter("sort"), limit)) {
+            arr.add(JSONObject.fromObject(m));
+        }
+        JSONObject body = new JSONObject();
+        body.put("window", TrendAnalytics.WINDOW);
+        body.put("scenarios", arr);
+        rsp.setContentType("application/json;charset=UTF-8");
+        rsp.getWriter().write(body.toString());
+    }
+
+    /**
+     * ReportDetail 캐시 통계 (관리자 전용)
+     * URL: /mcp-reports/cacheStats
+     */
+    public void doCacheStats(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        long hits = DETAIL_CACHE.getHits();
+        long misses = DETAIL_CACHE.getMisses();
+        JSONObject body = new JSONObject();
+        body.put("entries", DETAIL_CACHE.size());
+        body.put("maxEntries", DETAIL_CACHE.getMaxEntries());
+        body.put("hits", hits);
+        body.put("misses", misses);
+        body.put("evictions", DETAIL_CACHE.getEvictions());
+        body.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        rsp.setContentType("application/json;charset=UTF-8");
+        rsp.getWriter().write(body.toString());
     }
 
     /**
      * 빌드별 시나리오 목록
      */
     public List<String> getScenarios(@QueryParameter String build) {
+        if (isSafeName(build) && ResultStore.get().has(build)) {
+            List<String> list = new ArrayList<>();
+            for (ScenarioSummary s : ResultStore.get().summaries(build)) {
+                list.add(s.getScenario());
+            }
+            return list;
+        }
         File dir = new File(Jenkins.get().getRootDir(), "results" + File.separator + build);
         if (!dir.isDirectory()) {
             return Collections.emptyList();
@@ -114,18 +263,43 @@ public class GlobalReportAction implements RootAction {
     }
 
     /**
-     * 스크린샷 base64 반환
+     * 빌드 전체의 LLM/브라우저 사용량 합계
      */
-    public String getScreenshotDataUri(@QueryParameter String build,
-                                       @QueryParameter String scenario,
-                                       @QueryParameter String file) throws IOException {
-        String base = Jenkins.get().getRootDir().getAbsolutePath();
-        String imgPath = String.join(File.separator, base, "results", build, scenario, "screenshots", file);
-        if (!Files.exists(Paths.get(imgPath))) {
-            return "";
+    public StepMetrics getBuildMetrics(String build) throws IOException {
+        List<StepMetrics> totals = new ArrayList<>();
+        for (String scenario : getScenarios(build)) {
+            ReportDetail d = getReportDetail(build, scenario);
+            if (d != null) totals.add(d.getMetricsTotal());
         }
-        byte[] bytes = Files.readAllBytes(Paths.get(imgPath));
-        return "data:image/png;base64," + Base64.getEncoder().encodeToString(bytes);
+        return StepMetrics.sum(totals);
+    }
+
+    /**
+     * 밀리초를 소수 한 자리 초 문자열로
+     */
+    public String seconds(double ms) {
+        return String.format(Locale.ROOT, "%.1f", ms / 1000);
+    }
+
+    /**
+     * 시나리오 시간 중 LLM 과 브라우저 도구를 뺀 나머지(초), 소요 시간이 없으면 "-"
+     * 사이트 응답 대기나 러너 자체의 처리 시간이 여기에 들어갑니다.
+     */
+    public String otherSeconds(ReportDetail d) {
+        if (Double.isNaN(d.getDuration())) return "-";
+        StepMetrics m = d.getMetricsTotal();
+        return seconds(Math.max(0, d.getDuration() * 1000 - m.getModelMs() - m.getBrowserMs()));
+    }
+
+    /**
+     * 스크린샷 이미지 URL (width 가 0 보다 크면 축소본)
+     * 이미지를 페이지에 직접 넣지 않고 doScreenshot 이 스트리밍하도록 링크만 만듭니다.
+     */
+    public String getScreenshotUrl(String build, String scenario, String file, int width) {
+        String url = "screenshot?build=" + Util.rawEncode(build)
+                + "&scenario=" + Util.rawEncode(scenario)
+                + "&file=" + Util.rawEncode(file);
+        return width > 0 ? url + "&w=" + width : url;
     }
 
     /**
@@ -143,27 +317,102 @@ public class GlobalReportAction implements RootAction {
                 + " (exists=" + html.exists() + ", readable=" + html.canRead() + ")");
         // ─────────────────────────────────────────────
         if (!html.exists()) {
+            if (isSafeName(build) && ResultArchive.exists(build)) {
+                return fromArchive(build, "report.html", "text/html;charset=UTF-8");
+            }
             return HttpResponses.error(404, "report.html not found for build: " + build);
         }
         return HttpResponses.staticResource(html);
     }
 
+    private interface Source {
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * 보존 정책으로 압축 보관된 빌드의 파일을 묶음에서 바로 스트리밍
+     */
+    private static HttpResponse fromArchive(String build, String path, String contentType) {
+        return fromArchive(() -> ResultArchive.open(build, path), path, contentType);
+    }
+
+    private static HttpResponse fromArchive(Source source, String path, String contentType) {
+        return (req, rsp, node) -> {
+            try (InputStream in = source.open()) {
+                if (in == null) {
+                    rsp.sendError(404, "Not found in archive: " + path);
+                    return;
+                }
+                rsp.setContentType(contentType);
+                rsp.setHeader("Cache-Control", "private, max-age=86400");
+                IOUtils.copy(in, rsp.getOutputStream());
+            }
+        };
+    }
+
     /**
      * screenshot 이미지를 서빙.
-     * URL: /mcp-reports/screenshot?build={build}&scenario={scenario}&file={file}
+     * URL: /mcp-reports/screenshot?build={build}&scenario={scenario}&file={file}[&w={width}]
+     * 파일을 스트리밍하며 ETag/Last-Modified 캐시 검증과 Range 요청을 지원합니다.
+     * w 를 주면 해당 폭의 축소본(JPEG)을 만들어 캐시해 두고 돌려줍니다.
+     * 원본이 스크린샷 묶음이나 보관 묶음으로 옮겨졌으면 풀지 않고 해당 엔트리만 읽습니다.
      */
     public HttpResponse doScreenshot(
             @QueryParameter("build") String build,
             @QueryParameter("scenario") String scenario,
-            @QueryParameter("file") String fileName
+            @QueryParameter("file") String fileName,
+            @QueryParameter("w") int width
     ) throws IOException {
+        if (!isSafeName(build) || !isSafeName(scenario) || !isSafeName(fileName)) {
+            return HttpResponses.error(400, "Invalid screenshot path");
+        }
         File img = new File(
                 Jenkins.get().getRootDir(),
                 "results/" + build + "/" + scenario + "/screenshots/" + fileName
         );
         if (!img.isFile()) {
+            // 스크린샷 묶음으로 옮겨진 빌드
+            File pack = ScreenshotPack.fileOf(new File(Jenkins.get().getRootDir(), "results/" + build));
+            if (pack.isFile()) {
+                File thumb = width > 0 ? Thumbnails.cached(img, width) : null;
+                if (thumb != null) {
+                    return new FileStreamResponse(thumb, "image/jpeg");
+                }
+                return ScreenshotPack.respond(pack, scenario, fileName, contentTypeOf(fileName));
+            }
+            if (ResultArchive.exists(build)) {
+                String path = scenario + "/screenshots/" + fileName;
+                return fromArchive(() -> {
+                    InputStream in = ResultArchive.open(build, path);
+                    if (in != null) return in;
+                    // 보관 묶음 안에 스크린샷 묶음이 들어 있는 경우
+                    InputStream packIn = ResultArchive.open(build, ScreenshotPack.FILE);
+                    return packIn == null ? null : ScreenshotPack.find(packIn, scenario, fileName);
+                }, path, contentTypeOf(fileName));
+            }
             return HttpResponses.error(404, "Screenshot not found");
         }
-        return HttpResponses.staticResource(img);
+        if (width > 0) {
+            File thumb = Thumbnails.get(img, width);
+            if (!thumb.equals(img)) {
+                return new FileStreamResponse(thumb, "image/jpeg");
+            }
+        }
+        return new FileStreamResponse(img, contentTypeOf(fileName));
+    }
+
+    /**
+     * 경로 조작을 막기 위해 한 단계 이름만 허용
+     */
+    private static boolean isSafeName(String name) {
+        return name != null && !name.isEmpty() && !name.equals(".") && !name.equals("..")
+                && name.indexOf('/') < 0 && name.indexOf('\\') < 0;
+    }
+
+    private static String contentTypeOf(String fileName) {
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".jpg") || lower.endsWith(".jpeg")) return "image/jpeg";
+        if (lower.endsWith(".webp")) return "image/webp";
+        return "image/png";
     }
 }
\ No newline at end of file
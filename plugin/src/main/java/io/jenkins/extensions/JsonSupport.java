@@ -0,0 +1,23 @@
+package io.jenkins.extensions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.jenkins.extensions.dto.ScriptModel;
+
+/**
+ * 플러그인 전체에서 공유하는 Jackson 직렬화 설정
+ *
+ * ObjectMapper 는 설정 후에는 스레드 안전하고, 만들 때마다 직렬화기 캐시를 다시 쌓으므로
+ * 한 번만 만들어 두고 ScriptModel 용 ObjectReader/ObjectWriter 도 미리 만들어 재사용합니다.
+ */
+public final class JsonSupport {
+    public static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static final ObjectReader SCRIPT_READER = MAPPER.readerFor(ScriptModel.class);
+
+    /** 스크립트 파일 저장용 (들여쓰기 포함) */
+    public static final ObjectWriter SCRIPT_WRITER = MAPPER.writerFor(ScriptModel.class).withDefaultPrettyPrinter();
+
+    private JsonSupport() { }
+}
@@ -0,0 +1,109 @@
+package io.jenkins.extensions;
+
+import io.jenkins.extensions.dto.ReportDetail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 빌드/시나리오별로 파싱한 ReportDetail 을 보관하는 LRU 캐시
+ *
+ * result.json 의 수정 시각과 크기가 캐시할 때와 같을 때만 재사용하고,
+ * 다르면 다시 읽어 교체합니다. 최대 개수를 넘으면 가장 오래 쓰이지 않은 항목부터 버립니다.
+ */
+final class ReportDetailCache {
+    static final int MAX_ENTRIES = Integer.getInteger(ReportDetailCache.class.getName() + ".maxEntries", 256);
+
+    interface Loader {
+        ReportDetail load(File json) throws IOException;
+    }
+
+    private static final class Entry {
+        final long lastModified;
+        final long size;
+        final ReportDetail detail;
+
+        Entry(long lastModified, long size, ReportDetail detail) {
+            this.lastModified = lastModified;
+            this.size = size;
+            this.detail = detail;
+        }
+    }
+
+    private final int maxEntries;
+    private final Map<String, Entry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    ReportDetailCache(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ReportDetailCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 캐시된 값이 최신이면 그대로, 아니면 loader 로 읽어 캐시 (파일이 없으면 null)
+     */
+    ReportDetail get(String build, String scenario, File json, Loader loader) throws IOException {
+        String key = build + "/" + scenario;
+        long lastModified = json.lastModified();
+        long size = json.length();
+        if (lastModified == 0L) {
+            // 파일이 없음
+            synchronized (entries) {
+                entries.remove(key);
+            }
+            return null;
+        }
+        synchronized (entries) {
+            Entry e = entries.get(key);
+            if (e != null && e.lastModified == lastModified && e.size == size) {
+                hits.incrementAndGet();
+                return e.detail;
+            }
+        }
+        // 파싱은 잠금 밖에서 (같은 키를 동시에 읽으면 둘 다 파싱하고 마지막 값이 남음)
+        misses.incrementAndGet();
+        ReportDetail detail = loader.load(json);
+        if (detail != null) {
+            synchronized (entries) {
+                entries.put(key, new Entry(lastModified, size, detail));
+            }
+        }
+        return detail;
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    long getEvictions() {
+        return evictions.get();
+    }
+
+    int getMaxEntries() {
+        return maxEntries;
+    }
+}
@@ -0,0 +1,141 @@
+package io.jenkins.extensions;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import io.jenkins.extensions.dto.ReportDetail;
+import io.jenkins.extensions.dto.StepMetrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * result.json 을 Jackson 스트리밍 파서로 읽어 ReportDetail 로 바로 채움
+ *
+ * 파일 전체를 String 이나 트리로 만들지 않고 토큰 단위로 읽으며,
+ * 필요 없는 필드는 건너뜁니다. LLM 피드백처럼 긴 문자열도 읽을 수 있도록 문자열 길이 제한을 늘려 둡니다.
+ */
+final class ReportDetailReader {
+    /** 한 문자열 값의 최대 길이 (기본 20MB 제한 대신) */
+    private static final int MAX_STRING_LENGTH = 256 * 1024 * 1024;
+
+    private static final JsonFactory FACTORY = JsonFactory.builder()
+            .streamReadConstraints(StreamReadConstraints.builder().maxStringLength(MAX_STRING_LENGTH).build())
+            .build();
+
+    private ReportDetailReader() { }
+
+    static ReportDetail read(File json) throws IOException {
+        ReportDetail d = new ReportDetail();
+        // json-lib optString/optDouble 과 같이 값이 없으면 "" / NaN
+        d.setTitle("");
+        d.setFeedback("");
+        d.setDuration(Double.NaN);
+        List<String> screenshots = new ArrayList<>();
+        List<StepMetrics> metrics = new ArrayList<>();
+        try (JsonParser p = FACTORY.createParser(json)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("result.json 최상위가 객체가 아닙니다: " + json);
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken t = p.nextToken();
+                switch (field) {
+                    case "title":
+                        d.setTitle(t == JsonToken.VALUE_NULL ? "" : p.getValueAsString(""));
+                        break;
+                    case "status":
+                        d.setStatus(p.getValueAsBoolean(false));
+                        break;
+                    case "duration":
+                        d.setDuration(p.getValueAsDouble(Double.NaN));
+                        break;
+                    case "feedback":
+                        d.setFeedback(t == JsonToken.VALUE_NULL ? "" : p.getValueAsString(""));
+                        break;
+                    case "fail":
+                        d.setFail(readRaw(p, t));
+                        break;
+                    case "screenshots":
+                        if (t == JsonToken.START_ARRAY) {
+                            while (p.nextToken() != JsonToken.END_ARRAY) {
+                                if (p.currentToken().isScalarValue()) {
+                                    screenshots.add(p.getText());
+                                } else {
+                                    p.skipChildren();
+                                }
+                            }
+                        } else {
+                            p.skipChildren();
+                        }
+                        break;
+                    case "metrics":
+                        if (t == JsonToken.START_ARRAY) {
+                            while (p.nextToken() != JsonToken.END_ARRAY) {
+                                if (p.currentToken() == JsonToken.START_OBJECT) {
+                                    metrics.add(readMetrics(p));
+                                } else {
+                                    p.skipChildren();
+                                }
+                            }
+                        } else {
+                            p.skipChildren();
+                        }
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+        }
+        // 캐시된 객체를 여러 요청이 공유하므로 읽기 전용으로
+        d.setScreenshots(Collections.unmodifiableList(screenshots));
+        d.setMetrics(Collections.unmodifiableList(metrics));
+        return d;
+    }
+
+    /**
+     * metrics 배열의 객체 하나 (현재 토큰이 START_OBJECT)
+     */
+    private static StepMetrics readMetrics(JsonParser p) throws IOException {
+        int step = 0, llmCalls = 0;
+        long in = 0, out = 0;
+        double modelMs = 0, browserMs = 0;
+        String action = null;
+        boolean cached = false;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken t = p.nextToken();
+            switch (field) {
+                case "step": step = p.getValueAsInt(0); break;
+                case "action": action = t == JsonToken.VALUE_NULL ? null : p.getValueAsString(); break;
+                case "llmCalls": llmCalls = p.getValueAsInt(0); break;
+                case "inputTokens": in = p.getValueAsLong(0); break;
+                case "outputTokens": out = p.getValueAsLong(0); break;
+                case "modelMs": modelMs = p.getValueAsDouble(0); break;
+                case "browserMs": browserMs = p.getValueAsDouble(0); break;
+                case "cached": cached = p.getValueAsBoolean(false); break;
+                default: p.skipChildren();
+            }
+        }
+        return new StepMetrics(step, action, llmCalls, in, out, modelMs, browserMs, cached ? llmCalls : 0);
+    }
+
+    /**
+     * 문자열은 그대로, 배열/객체는 JSON 문자열로 (null 이면 null)
+     */
+    private static String readRaw(JsonParser p, JsonToken t) throws IOException {
+        if (t == JsonToken.VALUE_NULL) return null;
+        if (t.isScalarValue()) return p.getText();
+        StringWriter sw = new StringWriter();
+        try (JsonGenerator g = FACTORY.createGenerator(sw)) {
+            g.copyCurrentStructure(p);
+        }
+        return sw.toString();
+    }
+}
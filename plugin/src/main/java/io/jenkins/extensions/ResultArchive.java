@@ -0,0 +1,92 @@
+package io.jenkins.extensions;
+
+import jenkins.model.Jenkins;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 오래된 결과 폴더를 압축 묶음(results/.archive/&lt;build&gt;.zip)으로 보관
+ *
+ * 묶음 안의 경로는 결과 폴더 기준 상대 경로이며, MCP Reports 는 폴더가 없을 때
+ * 묶음에서 report.html 과 스크린샷을 바로 읽습니다. 축소본(.thumbs)은 다시 만들 수 있으므로 넣지 않습니다.
+ */
+final class ResultArchive {
+    static final String DIR = ".archive";
+
+    private ResultArchive() { }
+
+    static File root() {
+        return new File(new File(Jenkins.get().getRootDir(), "results"), DIR);
+    }
+
+    static File fileOf(String build) {
+        return new File(root(), build + ".zip");
+    }
+
+    static boolean exists(String build) {
+        return fileOf(build).isFile();
+    }
+
+    /**
+     * 결과 폴더를 압축해 보관 (완료 후 폴더 삭제는 호출한 쪽에서)
+     */
+    static void archive(File buildDir) throws IOException {
+        File zip = fileOf(buildDir.getName());
+        Files.createDirectories(zip.getParentFile().toPath());
+        File tmp = new File(zip.getParentFile(), zip.getName() + ".tmp");
+        Path base = buildDir.toPath();
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(base)) {
+            files = walk.filter(Files::isRegularFile)
+                    .filter(p -> !base.relativize(p).toString().contains(Thumbnails.DIR))
+                    .sorted()
+                    .toList();
+        }
+        try (ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            for (Path p : files) {
+                ZipEntry e = new ZipEntry(base.relativize(p).toString().replace(File.separatorChar, '/'));
+                e.setTime(Files.getLastModifiedTime(p).toMillis());
+                out.putNextEntry(e);
+                Files.copy(p, out);
+                out.closeEntry();
+            }
+        }
+        Files.move(tmp.toPath(), zip.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * 묶음 안의 파일을 스트림으로 읽음 (없으면 null, 스트림을 닫으면 묶음도 닫힘)
+     */
+    static InputStream open(String build, String path) throws IOException {
+        File zip = fileOf(build);
+        if (!zip.isFile()) return null;
+        ZipFile zf = new ZipFile(zip);
+        ZipEntry e = zf.getEntry(path);
+        if (e == null) {
+            zf.close();
+            return null;
+        }
+        return new FilterInputStream(zf.getInputStream(e)) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    zf.close();
+                }
+            }
+        };
+    }
+
+    static void delete(String build) throws IOException {
+        Files.deleteIfExists(fileOf(build).toPath());
+    }
+}
@@ -0,0 +1,235 @@
+package io.jenkins.extensions;
+
+import io.jenkins.extensions.dto.ReportDetail;
+import io.jenkins.extensions.dto.ScenarioSummary;
+import io.jenkins.extensions.dto.StepMetrics;
+import jenkins.model.Jenkins;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 빌드별 시나리오 결과를 한 파일로 모아 두는 저장소 ($JENKINS_HOME/results/.store)
+ *
+ * &lt;build&gt;.mst 에는 시나리오 결과를 길이 접두 바이너리 레코드로 이어 쓰고,
+ * &lt;build&gt;.idx 에는 시나리오별 오프셋과 상태/소요 시간을 한 줄씩 기록합니다.
+ * 목록이나 빌드 간 집계는 작은 인덱스 파일만 읽고, 상세 보기는 해당 레코드 하나만 읽습니다.
+ */
+public final class ResultStore {
+    private static final Logger LOGGER = Logger.getLogger(ResultStore.class.getName());
+    static final String DIR = ".store";
+    private static final String DATA = ".mst";
+    private static final String INDEX = ".idx";
+    /** 2: 레코드 끝에 단계별 사용량 추가 */
+    private static final int VERSION = 2;
+    /** 가져온 뒤 시나리오별 result.json 은 삭제 (스크린샷/리포트는 유지), true 로 두면 원본도 보관 */
+    private static final boolean KEEP_JSON = Boolean.getBoolean(ResultStore.class.getName() + ".keepJson");
+
+    private static ResultStore instance;
+
+    private final File dir;
+
+    private ResultStore(File dir) {
+        this.dir = dir;
+    }
+
+    public static synchronized ResultStore get() {
+        if (instance == null) {
+            instance = new ResultStore(new File(new File(Jenkins.get().getRootDir(), "results"), DIR));
+        }
+        return instance;
+    }
+
+    /**
+     * 결과 폴더(results/&lt;build&gt;)의 시나리오별 result.json 을 읽어 저장소에 기록
+     * 같은 빌드를 다시 가져오면 기존 기록을 교체합니다.
+     */
+    public void importBuild(File buildDir) throws IOException {
+        String build = buildDir.getName();
+        File[] scenarios = buildDir.listFiles(File::isDirectory);
+        if (scenarios == null) return;
+        Arrays.sort(scenarios, Comparator.comparing(File::getName));
+
+        List<File> imported = new ArrayList<>();
+        Files.createDirectories(dir.toPath());
+        File dataTmp = new File(dir, build + DATA + ".tmp");
+        File indexTmp = new File(dir, build + INDEX + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(dataTmp)));
+             BufferedWriter idx = Files.newBufferedWriter(indexTmp.toPath(), StandardCharsets.UTF_8)) {
+            out.writeInt(VERSION);
+            for (File scenario : scenarios) {
+                File json = new File(scenario, "result.json");
+                if (!json.isFile()) continue;
+                ReportDetail d = ReportDetailReader.read(json);
+                long offset = out.size();
+                writeRecord(out, d);
+                idx.write(scenario.getName() + "\t" + offset + "\t" + (d.isStatus() ? 1 : 0) + "\t"
+                        + d.getDuration() + "\t" + oneLine(d.getTitle()));
+                idx.newLine();
+                imported.add(json);
+            }
+        }
+        if (imported.isEmpty()) {
+            Files.deleteIfExists(dataTmp.toPath());
+            Files.deleteIfExists(indexTmp.toPath());
+            return;
+        }
+        synchronized (this) {
+            // 데이터 → 인덱스 순서로 교체해 인덱스가 가리키는 레코드가 항상 존재하도록 함
+            Files.move(dataTmp.toPath(), new File(dir, build + DATA).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            Files.move(indexTmp.toPath(), new File(dir, build + INDEX).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (!KEEP_JSON) {
+            for (File json : imported) {
+                Files.deleteIfExists(json.toPath());
+            }
+        }
+    }
+
+    public boolean has(String build) {
+        return new File(dir, build + INDEX).isFile();
+    }
+
+    /**
+     * 빌드의 데이터 파일 (캐시 무효화 기준으로 사용)
+     */
+    File dataFile(String build) {
+        return new File(dir, build + DATA);
+    }
+
+    /**
+     * 빌드의 시나리오 요약 목록 (인덱스 파일만 읽음, 없으면 빈 목록)
+     */
+    public List<ScenarioSummary> summaries(String build) {
+        File idx = new File(dir, build + INDEX);
+        if (!idx.isFile()) return Collections.emptyList();
+        List<ScenarioSummary> list = new ArrayList<>();
+        try (BufferedReader br = Files.newBufferedReader(idx.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] p = line.split("\t", 5);
+                if (p.length < 5) continue;
+                list.add(new ScenarioSummary(p[0], p[4], "1".equals(p[2]), Double.parseDouble(p[3])));
+            }
+        } catch (IOException | NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "결과 인덱스를 읽지 못했습니다: " + idx, e);
+            return Collections.emptyList();
+        }
+        return list;
+    }
+
+    /**
+     * 시나리오 하나의 상세 결과 (없으면 null)
+     */
+    public ReportDetail read(String build, String scenario) throws IOException {
+        long offset = -1;
+        File idx = new File(dir, build + INDEX);
+        if (!idx.isFile()) return null;
+        try (BufferedReader br = Files.newBufferedReader(idx.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] p = line.split("\t", 3);
+                if (p.length >= 2 && p[0].equals(scenario)) {
+                    offset = Long.parseLong(p[1]);
+                    break;
+                }
+            }
+        }
+        if (offset < 0) return null;
+        try (RandomAccessFile raf = new RandomAccessFile(dataFile(build), "r")) {
+            int version = raf.readInt();
+            raf.seek(offset);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    new FileInputStream(raf.getFD())));
+            return readRecord(in, version);
+        }
+    }
+
+    /**
+     * 빌드 기록 삭제
+     */
+    public synchronized void remove(String build) throws IOException {
+        Files.deleteIfExists(new File(dir, build + INDEX).toPath());
+        Files.deleteIfExists(new File(dir, build + DATA).toPath());
+    }
+
+    private static void writeRecord(DataOutputStream out, ReportDetail d) throws IOException {
+        writeString(out, d.getTitle());
+        out.writeBoolean(d.isStatus());
+        out.writeDouble(d.getDuration());
+        writeString(out, d.getFeedback());
+        writeString(out, d.getFail());
+        List<String> shots = d.getScreenshots();
+        out.writeInt(shots.size());
+        for (String s : shots) {
+            writeString(out, s);
+        }
+        List<StepMetrics> metrics = d.getMetrics();
+        out.writeInt(metrics.size());
+        for (StepMetrics m : metrics) {
+            out.writeInt(m.getStep());
+            writeString(out, m.getAction());
+            out.writeInt(m.getLlmCalls());
+            out.writeLong(m.getInputTokens());
+            out.writeLong(m.getOutputTokens());
+            out.writeDouble(m.getModelMs());
+            out.writeDouble(m.getBrowserMs());
+            out.writeInt(m.getCachedCalls());
+        }
+    }
+
+    private static ReportDetail readRecord(DataInputStream in, int version) throws IOException {
+        ReportDetail d = new ReportDetail();
+        d.setTitle(readString(in));
+        d.setStatus(in.readBoolean());
+        d.setDuration(in.readDouble());
+        d.setFeedback(readString(in));
+        d.setFail(readString(in));
+        int n = in.readInt();
+        List<String> shots = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            shots.add(readString(in));
+        }
+        d.setScreenshots(Collections.unmodifiableList(shots));
+        if (version >= 2) {
+            int m = in.readInt();
+            List<StepMetrics> metrics = new ArrayList<>(m);
+            for (int i = 0; i < m; i++) {
+                metrics.add(new StepMetrics(in.readInt(), readString(in), in.readInt(), in.readLong(),
+                        in.readLong(), in.readDouble(), in.readDouble(), in.readInt()));
+            }
+            d.setMetrics(Collections.unmodifiableList(metrics));
+        }
+        return d;
+    }
+
+    /**
+     * writeUTF 는 64KB 제한이 있으므로 길이(int) + UTF-8 바이트로 기록 (null 은 -1)
+     */
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0) return null;
+        byte[] b = new byte[len];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private static String oneLine(String s) {
+        return s == null ? "" : s.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+}
@@ -0,0 +1,112 @@
+package io.jenkins.extensions;
+
+import hudson.Extension;
+import hudson.model.AsyncPeriodicWork;
+import hudson.model.TaskListener;
+import io.jenkins.extensions.dto.BuildEntry;
+import jenkins.model.Jenkins;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * $JENKINS_HOME/results 보존 정책을 주기적으로 적용
+ *
+ * 시스템 프로퍼티(io.jenkins.extensions.ResultsRetention.*)로 설정하며, 모두 0 이면 아무것도 지우지 않습니다.
+ * <ul>
+ *   <li>keepBuilds: 최근 N 개 결과 폴더만 유지</li>
+ *   <li>keepDays: N 일이 지난 결과 폴더 정리</li>
+ *   <li>keepFailedDays: 실패한 결과는 위 조건과 관계없이 N 일 동안 유지</li>
+ *   <li>archive: true 면 삭제 대신 압축 묶음으로 보관 (MCP Reports 에서 계속 열람 가능)</li>
+ *   <li>archiveKeepDays: 실행된 지 N 일이 지난 보관 묶음은 저장소/목록 기록과 함께 삭제 (0 이면 계속 보관)</li>
+ * </ul>
+ */
+@Extension
+public class ResultsRetention extends AsyncPeriodicWork {
+    private static final String PREFIX = ResultsRetention.class.getName();
+    static final int KEEP_BUILDS = Integer.getInteger(PREFIX + ".keepBuilds", 0);
+    static final int KEEP_DAYS = Integer.getInteger(PREFIX + ".keepDays", 0);
+    static final int KEEP_FAILED_DAYS = Integer.getInteger(PREFIX + ".keepFailedDays", 0);
+    static final boolean ARCHIVE = Boolean.getBoolean(PREFIX + ".archive");
+    static final int ARCHIVE_KEEP_DAYS = Integer.getInteger(PREFIX + ".archiveKeepDays", 0);
+
+    public ResultsRetention() {
+        super("MCP results retention");
+    }
+
+    @Override
+    public long getRecurrencePeriod() {
+        return TimeUnit.HOURS.toMillis(1);
+    }
+
+    @Override
+    protected void execute(TaskListener listener) throws IOException, InterruptedException {
+        if (KEEP_BUILDS <= 0 && KEEP_DAYS <= 0 && ARCHIVE_KEEP_DAYS <= 0) return;
+        File root = new File(Jenkins.get().getRootDir(), "results");
+        long now = System.currentTimeMillis();
+        // 빌드 번호는 Job 마다 따로 매겨지므로 "최근 N 개" 는 실행 시각 기준
+        List<BuildEntry> builds = new ArrayList<>(BuildCatalog.get().list());
+        builds.sort(Comparator.comparing(BuildEntry::getWhen).reversed());
+        int removed = 0;
+        int archived = 0;
+        for (int i = 0; i < builds.size(); i++) {
+            if (Thread.interrupted()) throw new InterruptedException();
+            BuildEntry b = builds.get(i);
+            long age = now - b.getWhen().getTime();
+            File dir = new File(root, b.getDirName());
+            if (!dir.isDirectory() && ResultArchive.exists(b.getDirName())) {
+                // 이미 보관된 빌드는 보관 기간이 지났을 때만 정리
+                if (ARCHIVE_KEEP_DAYS > 0 && age > TimeUnit.DAYS.toMillis(ARCHIVE_KEEP_DAYS)) {
+                    try {
+                        drop(b.getDirName());
+                        removed++;
+                    } catch (IOException e) {
+                        listener.error("보관 묶음 정리 실패: " + b.getDirName() + ": " + e.getMessage());
+                    }
+                }
+                continue;
+            }
+            boolean overCount = KEEP_BUILDS > 0 && i >= KEEP_BUILDS;
+            boolean expired = KEEP_DAYS > 0 && age > TimeUnit.DAYS.toMillis(KEEP_DAYS);
+            if (!overCount && !expired) continue;
+            if ("FAIL".equals(b.getStatus()) && KEEP_FAILED_DAYS > 0
+                    && age <= TimeUnit.DAYS.toMillis(KEEP_FAILED_DAYS)) continue;
+
+            try {
+                if (ARCHIVE) {
+                    if (!dir.isDirectory()) continue;
+                    // 목록/상세는 결과 저장소에서 계속 보여줄 수 있도록 가져온 뒤 압축
+                    if (!ResultStore.get().has(b.getDirName())) {
+                        ResultStore.get().importBuild(dir);
+                    }
+                    ResultArchive.archive(dir);
+                    FileUtils.deleteDirectory(dir);
+                    archived++;
+                } else {
+                    if (dir.exists()) FileUtils.deleteDirectory(dir);
+                    drop(b.getDirName());
+                    removed++;
+                }
+            } catch (IOException e) {
+                listener.error("결과 정리 실패: " + b.getDirName() + ": " + e.getMessage());
+            }
+        }
+        if (removed > 0 || archived > 0) {
+            listener.getLogger().println("▶ 결과 정리: 삭제 " + removed + "개, 보관 " + archived + "개");
+        }
+    }
+
+    /**
+     * 보관 묶음, 결과 저장소 기록, 목록 항목 삭제
+     */
+    private static void drop(String build) throws IOException {
+        ResultArchive.delete(build);
+        ResultStore.get().remove(build);
+        BuildCatalog.get().remove(build);
+    }
+}
@@ -0,0 +1,123 @@
+package io.jenkins.extensions;
+
+import org.apache.commons.io.IOUtils;
+import org.kohsuke.stapler.HttpResponse;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 빌드의 스크린샷을 하나의 압축 묶음(results/&lt;build&gt;/screenshots.zip)으로 모음
+ *
+ * 엔트리 이름은 &lt;시나리오&gt;/&lt;파일명&gt; 이며, ZIP 중앙 디렉터리를 색인으로 써서
+ * 풀지 않고 필요한 엔트리 하나만 읽습니다. 축소본(.thumbs)은 묶지 않고 그대로 둡니다.
+ * io.jenkins.extensions.ScreenshotPack.enabled=true 일 때만 빌드 완료 후 묶습니다.
+ */
+final class ScreenshotPack {
+    static final String FILE = "screenshots.zip";
+    static final boolean ENABLED = Boolean.getBoolean(ScreenshotPack.class.getName() + ".enabled");
+
+    private ScreenshotPack() { }
+
+    /**
+     * 시나리오별 screenshots 폴더의 이미지를 묶음에 넣고 원본 삭제
+     */
+    static void pack(File buildDir) throws IOException {
+        File[] scenarios = buildDir.listFiles(File::isDirectory);
+        if (scenarios == null) return;
+        List<File> packed = new ArrayList<>();
+        File pack = new File(buildDir, FILE);
+        File tmp = new File(buildDir, FILE + ".tmp");
+        try (ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            // 이미 묶인 빌드에 다시 호출되면 기존 엔트리를 옮겨 담음
+            if (pack.isFile()) {
+                try (ZipInputStream in = new ZipInputStream(new BufferedInputStream(new FileInputStream(pack)))) {
+                    ZipEntry e;
+                    while ((e = in.getNextEntry()) != null) {
+                        ZipEntry copy = new ZipEntry(e.getName());
+                        copy.setTime(e.getTime());
+                        out.putNextEntry(copy);
+                        IOUtils.copy(in, out);
+                        out.closeEntry();
+                    }
+                }
+            }
+            for (File scenario : scenarios) {
+                File[] images = new File(scenario, "screenshots").listFiles(File::isFile);
+                if (images == null) continue;
+                for (File img : images) {
+                    ZipEntry e = new ZipEntry(scenario.getName() + "/" + img.getName());
+                    e.setTime(img.lastModified());
+                    out.putNextEntry(e);
+                    Files.copy(img.toPath(), out);
+                    out.closeEntry();
+                    packed.add(img);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp.toPath());
+            throw e;
+        }
+        if (packed.isEmpty()) {
+            Files.deleteIfExists(tmp.toPath());
+            return;
+        }
+        Files.move(tmp.toPath(), pack.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        for (File img : packed) {
+            Files.deleteIfExists(img.toPath());
+        }
+    }
+
+    static File fileOf(File buildDir) {
+        return new File(buildDir, FILE);
+    }
+
+    /**
+     * 묶음의 엔트리 하나를 스트리밍 (CRC+크기로 만든 ETag 로 조건부 요청에 304)
+     */
+    static HttpResponse respond(File pack, String scenario, String fileName, String contentType) {
+        return (req, rsp, node) -> {
+            try (ZipFile zf = new ZipFile(pack)) {
+                ZipEntry e = zf.getEntry(scenario + "/" + fileName);
+                if (e == null) {
+                    rsp.sendError(404, "Screenshot not found");
+                    return;
+                }
+                String etag = "\"" + Long.toHexString(e.getCrc()) + "-" + Long.toHexString(e.getSize()) + "\"";
+                rsp.setHeader("ETag", etag);
+                rsp.setDateHeader("Last-Modified", e.getTime());
+                rsp.setHeader("Cache-Control", "private, max-age=86400");
+                if (etag.equals(req.getHeader("If-None-Match"))) {
+                    rsp.setStatus(304);
+                    return;
+                }
+                rsp.setContentType(contentType);
+                if (e.getSize() >= 0) rsp.setHeader("Content-Length", String.valueOf(e.getSize()));
+                try (InputStream in = zf.getInputStream(e)) {
+                    IOUtils.copy(in, rsp.getOutputStream());
+                }
+            }
+        };
+    }
+
+    /**
+     * 묶음 스트림에서 엔트리를 순서대로 찾아 읽음 (압축 보관된 빌드 안의 묶음용, 없으면 null)
+     */
+    static InputStream find(InputStream packStream, String scenario, String fileName) throws IOException {
+        ZipInputStream in = new ZipInputStream(new BufferedInputStream(packStream));
+        String name = scenario + "/" + fileName;
+        ZipEntry e;
+        while ((e = in.getNextEntry()) != null) {
+            if (e.getName().equals(name)) return in;
+        }
+        in.close();
+        return null;
+    }
+}
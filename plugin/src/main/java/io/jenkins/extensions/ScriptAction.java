@@ -3,16 +3,17 @@ package io.jenkins.extensions;
 import hudson.Extension;
 import hudson.model.RootAction;
 import io.jenkins.extensions.dto.ScriptEntry;
+import io.jenkins.extensions.dto.ScriptHit;
 import io.jenkins.extensions.dto.ScriptModel;
 import jenkins.model.Jenkins;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
 import org.kohsuke.stapler.QueryParameter;
 import org.kohsuke.stapler.StaplerRequest;
 import org.kohsuke.stapler.StaplerResponse;
 import org.kohsuke.stapler.interceptor.RequirePOST;
 
-import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import javax.servlet.ServletException;
 import java.io.*;
@@ -38,57 +39,86 @@ public class ScriptAction implements RootAction {
         return d;
     }
 
+    /** 목록 한 페이지에 보여줄 스크립트 수 */
+    public static final int PAGE_SIZE = 50;
+    /** 본문 검색 결과 최대 수 */
+    public static final int SEARCH_LIMIT = 200;
+
+    private ScriptIndex index() throws IOException {
+        return ScriptIndex.get(getDir());
+    }
+
     /**
-     * JSON(.json) 및 텍스트(.txt) 파일 모두 목록에 포함
+     * JSON(.json) 및 텍스트(.txt) 파일 모두 목록에 포함 (수정일 내림차순, 메모리 인덱스에서 조회)
      */
     public List<ScriptEntry> getScripts() throws IOException {
-        File[] files = getDir().listFiles(f ->
-                f.getName().endsWith(".json") || f.getName().endsWith(".txt")
-        );
-        if (files == null) return Collections.emptyList();
-
-        List<ScriptEntry> out = new ArrayList<>();
-        for (File f : files) {
-            String name = f.getName();
-            // 제목에 항상 확장자 포함
-            String title = name;
-            out.add(new ScriptEntry(title, name, new Date(f.lastModified())));
+        return index().list();
+    }
+
+    /**
+     * 검색어 q 로 거른 목록의 한 페이지 (page 는 0부터)
+     */
+    public List<ScriptEntry> getScriptPage(int page, String q) throws IOException {
+        List<ScriptEntry> all = index().search(q);
+        int from = Math.min(Math.max(0, page) * PAGE_SIZE, all.size());
+        return all.subList(from, Math.min(all.size(), from + PAGE_SIZE));
+    }
+
+    public int getScriptPageCount(String q) throws IOException {
+        return Math.max(1, (index().search(q).size() + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    public int parsePage(String page) {
+        try {
+            return page == null ? 0 : Math.max(0, Integer.parseInt(page));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 스크립트 제목, 시나리오 제목, 단계 문장에서 q 를 찾음 (최대 SEARCH_LIMIT 개)
+     */
+    public List<ScriptHit> getTextHits(String q) throws IOException {
+        return index().searchText(q, SEARCH_LIMIT);
+    }
+
+    /**
+     * 본문 검색 JSON 엔드포인트
+     * URL: /scripts/search?q=...
+     */
+    public void doSearch(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        Jenkins.get().checkPermission(Jenkins.READ);
+        JSONArray arr = new JSONArray();
+        for (ScriptHit h : getTextHits(req.getParameter("q"))) {
+            JSONObject o = new JSONObject();
+            o.put("fileName", h.getFileName());
+            o.put("scenario", h.getScenario());
+            o.put("step", h.getStep());
+            o.put("text", h.getText());
+            arr.add(o);
         }
-        out.sort(Comparator.comparing(ScriptEntry::getModified).reversed());
-        return out;
+        rsp.setContentType("application/json;charset=UTF-8");
+        rsp.getWriter().write(arr.toString());
     }
 
     /**
      * JSON 스크립트 편집 뷰 바인딩 (input.jelly)
      */
     public ScriptModel getIt(@QueryParameter String script) throws IOException {
-        if (script == null) return new ScriptModel();
-        File f = new File(getDir(), script);
-        if (f.exists() && script.endsWith(".json")) {
-            return load(f);
-        }
-        return new ScriptModel();
+        if (script == null || !script.endsWith(".json")) return new ScriptModel();
+        ScriptModel m = index().model(script);
+        return m != null ? m : new ScriptModel();
     }
 
     /**
      * TXT 스크립트 편집 뷰 바인딩 (input_txt.jelly)
+     * JSON 이면 JSON 모델을, TXT 면 제목과 내용을 담은 모델을 인덱스에서 반환
      */
     public ScriptModel getInput_txt(@QueryParameter String script) throws IOException {
         if (script == null) return new ScriptModel();
-        File f = new File(getDir(), script);
-        if (!f.exists()) return new ScriptModel();
-
-        if (script.endsWith(".json")) {
-            // 만약 JSON이라면 기존 로드 로직 재사용
-            return load(f);
-        } else {
-            // TXT 파일 내용 읽어서 모델에 주입
-            String content = new String(Files.readAllBytes(f.toPath()), StandardCharsets.UTF_8);
-            ScriptModel m = new ScriptModel();
-            m.setTitle(script.substring(0, script.lastIndexOf('.')));
-            m.setContent(content);
-            return m;
-        }
+        ScriptModel m = index().model(script);
+        return m != null ? m : new ScriptModel();
     }
 
     /**
@@ -105,16 +135,14 @@ public class ScriptAction implements RootAction {
         String fileName = sanitize(model.getTitle()) + ".json";
         Path target = getDir().toPath().resolve(fileName);
 
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.getFactory().configure(JsonGenerator.Feature.ESCAPE_NON_ASCII, false);
-
         try (BufferedWriter writer = Files.newBufferedWriter(
                 target,
                 StandardCharsets.UTF_8,
                 StandardOpenOption.CREATE,
                 StandardOpenOption.TRUNCATE_EXISTING)) {
-            mapper.writerWithDefaultPrettyPrinter().writeValue(writer, model);
+            JsonSupport.SCRIPT_WRITER.writeValue(writer, model);
         }
+        index().refresh(fileName);
 
         // 포트 제거된 루트 URL 얻어서 리다이렉트
         String base = getRootUrlWithoutPort();
@@ -149,6 +177,7 @@ public class ScriptAction implements RootAction {
                     StandardOpenOption.TRUNCATE_EXISTING
             );
         }
+        index().refresh(fileName);
 
         // 저장/삭제 후 목록으로
         // 포트 제거된 루트 URL 얻어서 리다이렉트
@@ -156,20 +185,6 @@ public class ScriptAction implements RootAction {
         rsp.sendRedirect2(base + "jenkins/" + getUrlName());
     }
 
-    /**
-     * JSON 파일 로드 유틸
-     */
-    private ScriptModel load(File f) {
-        ObjectMapper mapper = new ObjectMapper();
-        try (BufferedReader reader = Files.newBufferedReader(
-                f.toPath(),
-                StandardCharsets.UTF_8)) {
-            return mapper.readValue(reader, ScriptModel.class);
-        } catch (IOException e) {
-            return new ScriptModel();
-        }
-    }
-
     /**
      * 파일명에 사용할 수 없는 문자를 _ 로 대체
      */
@@ -0,0 +1,230 @@
+package io.jenkins.extensions;
+
+import io.jenkins.extensions.dto.ScriptEntry;
+import io.jenkins.extensions.dto.ScriptHit;
+import io.jenkins.extensions.dto.ScriptModel;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * $JENKINS_HOME/scripts 의 스크립트 목록과 파싱 결과를 메모리에 유지하는 인덱스
+ *
+ * 처음 한 번 디렉터리를 읽은 뒤에는 WatchService 이벤트로 바뀐 파일만 다시 읽고,
+ * 목록/검색/페이지 조회와 본문 검색은 메모리에서 바로 응답합니다.
+ * 감시가 늦거나 지원되지 않는 파일시스템을 위해 저장/삭제 핸들러도 직접 refresh 를 호출합니다.
+ */
+final class ScriptIndex {
+    private static final Logger LOGGER = Logger.getLogger(ScriptIndex.class.getName());
+
+    private static volatile ScriptIndex instance;
+
+    private static final class Item {
+        final long lastModified;
+        final long size;
+        final ScriptEntry entry;
+        /** 편집 화면용 모델 (여러 요청이 공유하므로 읽기 전용으로 사용) */
+        final ScriptModel model;
+
+        Item(long lastModified, long size, ScriptEntry entry, ScriptModel model) {
+            this.lastModified = lastModified;
+            this.size = size;
+            this.entry = entry;
+            this.model = model;
+        }
+    }
+
+    private final File dir;
+    private final Map<String, Item> items = new ConcurrentHashMap<>();
+    /** 수정일 내림차순 목록 (변경 시 null 로 무효화) */
+    private volatile List<ScriptEntry> sorted;
+    /** 제목/시나리오/단계 본문 역색인 (파일이 바뀔 때 그 파일만 갱신) */
+    private final ScriptSearchIndex text = new ScriptSearchIndex();
+
+    private ScriptIndex(File dir) {
+        this.dir = dir;
+    }
+
+    static synchronized ScriptIndex get(File dir) {
+        if (instance == null || !instance.dir.equals(dir)) {
+            ScriptIndex idx = new ScriptIndex(dir);
+            idx.rescan();
+            idx.watch();
+            instance = idx;
+        }
+        return instance;
+    }
+
+    static boolean isScript(String name) {
+        return name.endsWith(".json") || name.endsWith(".txt");
+    }
+
+    /**
+     * 수정일 내림차순 전체 목록
+     */
+    List<ScriptEntry> list() {
+        List<ScriptEntry> l = sorted;
+        if (l == null) {
+            l = new ArrayList<>();
+            for (Item it : items.values()) {
+                l.add(it.entry);
+            }
+            l.sort(Comparator.comparing(ScriptEntry::getModified).reversed());
+            l = Collections.unmodifiableList(l);
+            sorted = l;
+        }
+        return l;
+    }
+
+    /**
+     * 파일명/스크립트 제목에 q 가 들어간 스크립트 (대소문자 무시, q 가 비어 있으면 전체)
+     */
+    List<ScriptEntry> search(String q) {
+        if (q == null || q.isBlank()) return list();
+        String needle = q.trim().toLowerCase(Locale.ROOT);
+        List<ScriptEntry> out = new ArrayList<>();
+        for (ScriptEntry e : list()) {
+            if (e.getFileName().toLowerCase(Locale.ROOT).contains(needle)
+                    || (e.getScriptTitle() != null && e.getScriptTitle().toLowerCase(Locale.ROOT).contains(needle))) {
+                out.add(e);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * 편집 화면용 모델 (파일이 인덱스와 다르면 다시 읽음, 없으면 null)
+     */
+    ScriptModel model(String name) {
+        if (name.indexOf('/') >= 0 || name.indexOf('\\') >= 0) return null;
+        File f = new File(dir, name);
+        Item it = items.get(name);
+        if (it == null || it.lastModified != f.lastModified() || it.size != f.length()) {
+            refresh(name);
+            it = items.get(name);
+        }
+        return it != null ? it.model : null;
+    }
+
+    /**
+     * 파일 하나를 다시 읽어 인덱스에 반영 (삭제된 파일이면 제거)
+     */
+    void refresh(String name) {
+        if (!isScript(name)) return;
+        File f = new File(dir, name);
+        if (!f.isFile()) {
+            if (items.remove(name) != null) sorted = null;
+            text.remove(name);
+            return;
+        }
+        put(name, read(f));
+    }
+
+    private void put(String name, Item item) {
+        items.put(name, item);
+        text.update(name, item.model);
+        sorted = null;
+    }
+
+    /**
+     * 스크립트 제목, 시나리오 제목, 단계 문장 본문 검색
+     */
+    List<ScriptHit> searchText(String q, int limit) {
+        return text.search(q, limit);
+    }
+
+    private void rescan() {
+        Set<String> present = new HashSet<>();
+        File[] files = dir.listFiles(f -> f.isFile() && isScript(f.getName()));
+        if (files != null) {
+            for (File f : files) {
+                present.add(f.getName());
+                put(f.getName(), read(f));
+            }
+        }
+        for (String name : new ArrayList<>(items.keySet())) {
+            if (!present.contains(name)) {
+                items.remove(name);
+                text.remove(name);
+            }
+        }
+        sorted = null;
+    }
+
+    private static Item read(File f) {
+        String name = f.getName();
+        long lastModified = f.lastModified();
+        long size = f.length();
+        ScriptModel model;
+        String type;
+        if (name.endsWith(".json")) {
+            type = "json";
+            model = parseJson(f);
+        } else {
+            type = "txt";
+            model = new ScriptModel();
+            model.setTitle(name.substring(0, name.lastIndexOf('.')));
+            try {
+                model.setContent(new String(Files.readAllBytes(f.toPath()), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "스크립트를 읽지 못했습니다: " + f, e);
+            }
+        }
+        int count = model.getScenarios() != null ? model.getScenarios().size() : 0;
+        // 제목에 항상 확장자 포함
+        ScriptEntry entry = new ScriptEntry(name, name, new Date(lastModified), type, model.getTitle(), count);
+        return new Item(lastModified, size, entry, model);
+    }
+
+    private static ScriptModel parseJson(File f) {
+        try (BufferedReader reader = Files.newBufferedReader(f.toPath(), StandardCharsets.UTF_8)) {
+            return JsonSupport.SCRIPT_READER.readValue(reader);
+        } catch (IOException e) {
+            return new ScriptModel();
+        }
+    }
+
+    /**
+     * 디렉터리 감시 스레드 시작 (감시를 못 하면 저장 핸들러의 refresh 와 조회 시 mtime 확인에만 의존)
+     */
+    private void watch() {
+        WatchService ws;
+        try {
+            ws = dir.toPath().getFileSystem().newWatchService();
+            dir.toPath().register(ws, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException | UnsupportedOperationException e) {
+            LOGGER.log(Level.WARNING, "스크립트 디렉터리를 감시할 수 없습니다: " + dir, e);
+            return;
+        }
+        Thread t = new Thread(() -> {
+            try (WatchService watcher = ws) {
+                while (instance == null || instance == this) {
+                    WatchKey key = watcher.take();
+                    for (WatchEvent<?> ev : key.pollEvents()) {
+                        if (ev.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            rescan();
+                        } else {
+                            refresh(ev.context().toString());
+                        }
+                    }
+                    if (!key.reset()) {
+                        // 디렉터리가 삭제됨
+                        return;
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException | IOException e) {
+                // 감시 종료
+            }
+        }, "MST script index watcher");
+        t.setDaemon(true);
+        t.start();
+    }
+}
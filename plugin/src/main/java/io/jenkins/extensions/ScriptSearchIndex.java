@@ -0,0 +1,133 @@
+package io.jenkins.extensions;
+
+import io.jenkins.extensions.dto.ScriptHit;
+import io.jenkins.extensions.dto.ScriptModel;
+
+import java.util.*;
+
+/**
+ * 스크립트 제목, 시나리오 제목, 단계 문장에 대한 2-gram 역색인
+ *
+ * 한국어처럼 띄어쓰기 단위가 검색어와 맞지 않는 문장도 부분 문자열로 찾을 수 있도록
+ * 소문자로 바꾼 문장의 연속한 두 글자를 키로 색인합니다.
+ * 검색은 검색어의 2-gram 포스팅을 교집합한 뒤 실제 포함 여부를 확인하며,
+ * 스크립트가 저장/삭제될 때 해당 파일의 항목만 갱신합니다.
+ */
+final class ScriptSearchIndex {
+    private static final class Doc {
+        final ScriptHit hit;
+        final String lower;
+
+        Doc(ScriptHit hit) {
+            this.hit = hit;
+            this.lower = hit.getText().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Map<Integer, Doc> docs = new HashMap<>();
+    private final Map<String, Set<Integer>> postings = new HashMap<>();
+    private final Map<String, List<Integer>> docsByFile = new HashMap<>();
+    private int nextId;
+
+    /**
+     * 파일의 기존 항목을 지우고 모델 내용으로 다시 색인
+     */
+    synchronized void update(String fileName, ScriptModel model) {
+        remove(fileName);
+        List<Integer> ids = new ArrayList<>();
+        add(ids, new ScriptHit(fileName, 0, 0, model.getTitle()));
+        List<ScriptModel.Scenario> scenarios = model.getScenarios();
+        if (scenarios != null) {
+            for (int i = 0; i < scenarios.size(); i++) {
+                ScriptModel.Scenario sc = scenarios.get(i);
+                add(ids, new ScriptHit(fileName, i + 1, 0, sc.getTitle()));
+                List<String> steps = sc.getSteps();
+                if (steps == null) continue;
+                for (int j = 0; j < steps.size(); j++) {
+                    add(ids, new ScriptHit(fileName, i + 1, j + 1, steps.get(j)));
+                }
+            }
+        }
+        // txt 스크립트는 줄 단위로 색인
+        if (model.getContent() != null) {
+            String[] lines = model.getContent().split("\\R");
+            for (int j = 0; j < lines.length; j++) {
+                add(ids, new ScriptHit(fileName, 0, j + 1, lines[j].trim()));
+            }
+        }
+        docsByFile.put(fileName, ids);
+    }
+
+    synchronized void remove(String fileName) {
+        List<Integer> ids = docsByFile.remove(fileName);
+        if (ids == null) return;
+        for (int id : ids) {
+            Doc d = docs.remove(id);
+            for (String g : grams(d.lower)) {
+                Set<Integer> p = postings.get(g);
+                if (p == null) continue;
+                p.remove(id);
+                if (p.isEmpty()) postings.remove(g);
+            }
+        }
+    }
+
+    /**
+     * q 를 포함하는 항목 (파일명, 시나리오, 단계 순, 최대 limit 개)
+     */
+    synchronized List<ScriptHit> search(String q, int limit) {
+        if (q == null || q.isBlank()) return Collections.emptyList();
+        String needle = q.trim().toLowerCase(Locale.ROOT);
+        Collection<Integer> candidates;
+        if (needle.length() < 2) {
+            candidates = docs.keySet();
+        } else {
+            Set<Integer> acc = null;
+            for (String g : grams(needle)) {
+                Set<Integer> p = postings.get(g);
+                if (p == null) return Collections.emptyList();
+                if (acc == null) {
+                    acc = new HashSet<>(p);
+                } else {
+                    acc.retainAll(p);
+                }
+                if (acc.isEmpty()) return Collections.emptyList();
+            }
+            candidates = acc;
+        }
+        List<ScriptHit> out = new ArrayList<>();
+        for (int id : candidates) {
+            Doc d = docs.get(id);
+            if (d.lower.contains(needle)) out.add(d.hit);
+        }
+        out.sort(Comparator.comparing(ScriptHit::getFileName).thenComparingInt(ScriptHit::getScenario)
+                .thenComparingInt(ScriptHit::getStep));
+        return out.subList(0, Math.min(limit, out.size()));
+    }
+
+    private void add(List<Integer> ids, ScriptHit hit) {
+        if (hit.getText() == null || hit.getText().isEmpty()) return;
+        int id = nextId++;
+        Doc d = new Doc(hit);
+        docs.put(id, d);
+        ids.add(id);
+        for (String g : grams(d.lower)) {
+            postings.computeIfAbsent(g, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    /**
+     * 연속한 두 글자 집합 (한 글자짜리 문장은 그 글자 하나)
+     */
+    private static Set<String> grams(String s) {
+        Set<String> out = new HashSet<>();
+        if (s.length() == 1) {
+            out.add(s);
+            return out;
+        }
+        for (int i = 0; i + 2 <= s.length(); i++) {
+            out.add(s.substring(i, i + 2));
+        }
+        return out;
+    }
+}
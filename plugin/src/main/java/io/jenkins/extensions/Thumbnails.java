@@ -0,0 +1,139 @@
+package io.jenkins.extensions;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 스크린샷 축소본 생성/캐시
+ *
+ * 축소본은 원본 옆 screenshots/.thumbs/&lt;폭&gt;/ 아래에 JPEG 로 한 번만 만들고,
+ * 원본보다 오래된 경우에만 다시 만듭니다.
+ * 빌드가 끝나면 목록용 폭({@link #DEFAULT_WIDTH})을 백그라운드에서 미리 만들고,
+ * 그 밖의 폭은 처음 요청될 때 만듭니다.
+ *
+ * JDK ImageIO 에는 WebP 인코더가 없어 축소본은 JPEG 로 저장합니다.
+ */
+public final class Thumbnails {
+    private static final Logger LOGGER = Logger.getLogger(Thumbnails.class.getName());
+    static final String DIR = ".thumbs";
+    /** 허용하는 축소 폭 (임의 크기 요청으로 디스크가 늘어나지 않도록 가장 가까운 값으로 맞춤) */
+    static final int[] WIDTHS = {160, 320, 640};
+    /** 리포트 화면에서 쓰는 폭 */
+    public static final int DEFAULT_WIDTH = 320;
+
+    /** 빌드 처리 스레드를 막지 않도록 한 개의 데몬 스레드에서 순서대로 생성 */
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(
+            new NamingThreadFactory(new DaemonThreadFactory(), "MST thumbnails"));
+
+    private Thumbnails() { }
+
+    /**
+     * 결과 폴더(results/&lt;build&gt;) 아래 모든 시나리오의 스크린샷 축소본을 백그라운드에서 생성
+     * 스크린샷 묶음이 켜져 있으면 이어서 원본을 묶습니다.
+     */
+    public static void pregenerate(File buildDir) {
+        EXECUTOR.submit(() -> {
+            File[] scenarios = buildDir.listFiles(File::isDirectory);
+            if (scenarios == null) return;
+            for (File scenario : scenarios) {
+                File[] images = new File(scenario, "screenshots").listFiles(File::isFile);
+                if (images == null) continue;
+                for (File img : images) {
+                    try {
+                        get(img, DEFAULT_WIDTH);
+                    } catch (IOException | RuntimeException e) {
+                        LOGGER.log(Level.FINE, "축소본 생성 실패: " + img, e);
+                    }
+                }
+            }
+            // 축소본을 만든 뒤에 원본을 묶음으로 옮김
+            if (ScreenshotPack.ENABLED) {
+                try {
+                    ScreenshotPack.pack(buildDir);
+                } catch (IOException | RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "스크린샷 묶기 실패: " + buildDir, e);
+                }
+            }
+        });
+    }
+
+    static int normalize(int width) {
+        for (int w : WIDTHS) {
+            if (width <= w) return w;
+        }
+        return WIDTHS[WIDTHS.length - 1];
+    }
+
+    /**
+     * 이미 만들어 둔 축소본 (원본이 묶음으로 옮겨진 뒤 사용, 없으면 null)
+     */
+    static File cached(File original, int width) {
+        File thumb = thumbFile(original, normalize(width));
+        return thumb.isFile() ? thumb : null;
+    }
+
+    private static File thumbFile(File original, int w) {
+        return new File(new File(new File(original.getParentFile(), DIR), String.valueOf(w)),
+                original.getName() + ".jpg");
+    }
+
+    /**
+     * 원본의 width 폭 축소본 파일 (원본이 이미 더 작으면 원본 그대로)
+     */
+    static File get(File original, int width) throws IOException {
+        int w = normalize(width);
+        File thumb = thumbFile(original, w);
+        if (thumb.isFile() && thumb.lastModified() >= original.lastModified()) {
+            return thumb;
+        }
+        BufferedImage src = ImageIO.read(original);
+        if (src == null) {
+            throw new IOException("이미지를 읽을 수 없습니다: " + original.getName());
+        }
+        if (src.getWidth() <= w) {
+            return original;
+        }
+        int h = Math.max(1, (int) Math.round((double) src.getHeight() * w / src.getWidth()));
+        BufferedImage dst = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = dst.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(src, 0, 0, w, h, null);
+        } finally {
+            g.dispose();
+        }
+
+        Files.createDirectories(thumb.getParentFile().toPath());
+        File tmp = new File(thumb.getParentFile(), thumb.getName() + ".tmp-" + UUID.randomUUID());
+        try {
+            if (!ImageIO.write(dst, "jpg", tmp)) {
+                throw new IOException("JPEG 인코더를 찾을 수 없습니다");
+            }
+            try {
+                Files.move(tmp.toPath(), thumb.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp.toPath(), thumb.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+        return thumb;
+    }
+}
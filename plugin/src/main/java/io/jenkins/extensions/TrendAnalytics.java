@@ -0,0 +1,159 @@
+package io.jenkins.extensions;
+
+import io.jenkins.extensions.dto.BuildEntry;
+import io.jenkins.extensions.dto.ScenarioSummary;
+
+import java.util.*;
+
+/**
+ * 시나리오별 통과율, 소요 시간 p50/p95, flaky 정도를 최근 실행 기준으로 집계
+ *
+ * 처음 조회할 때 결과 저장소 인덱스에서 최근 빌드들을 한 번 읽어 채우고,
+ * 이후에는 새 빌드 결과가 들어올 때마다 해당 시나리오의 창(window)에만 추가합니다.
+ * 시나리오는 스크립트 파일명 + 시나리오 제목으로 구분합니다.
+ * 여러 Job 이 같은 results 폴더에 기록하므로 실행은 빌드 번호가 아닌 결과 폴더 이름으로 구분하고,
+ * 카탈로그에 기록된 실행 시각 순으로 정렬합니다.
+ */
+public final class TrendAnalytics {
+    /** 시나리오별로 유지하는 최근 실행 수 */
+    static final int WINDOW = Integer.getInteger(TrendAnalytics.class.getName() + ".window", 30);
+    /** 처음 채울 때 읽는 최근 빌드 수 */
+    static final int BOOTSTRAP_BUILDS = Integer.getInteger(TrendAnalytics.class.getName() + ".bootstrapBuilds", 500);
+
+    private static TrendAnalytics instance;
+
+    private static final class Run {
+        final String dir;
+        final int build;
+        final long when;
+        final boolean status;
+        final double duration;
+
+        Run(String dir, long when, boolean status, double duration) {
+            this.dir = dir;
+            this.build = BuildCatalog.parseNumber(dir);
+            this.when = when;
+            this.status = status;
+            this.duration = duration;
+        }
+    }
+
+    private static final Comparator<Run> TIME_ORDER = Comparator.comparingLong((Run r) -> r.when)
+            .thenComparing(r -> r.dir);
+
+    private final Map<String, Deque<Run>> byScenario = new HashMap<>();
+
+    private TrendAnalytics() { }
+
+    public static synchronized TrendAnalytics get() {
+        if (instance == null) {
+            TrendAnalytics t = new TrendAnalytics();
+            t.bootstrap();
+            instance = t;
+        }
+        return instance;
+    }
+
+    /**
+     * 새 빌드 결과가 저장소에 기록된 뒤 호출 (아직 집계를 조회한 적이 없으면 첫 조회 때 함께 읽히므로 무시)
+     */
+    public static void onBuildImported(String dirName, String script) {
+        TrendAnalytics t;
+        synchronized (TrendAnalytics.class) {
+            t = instance;
+        }
+        if (t != null) {
+            BuildEntry b = BuildCatalog.get().find(dirName);
+            long when = b != null ? b.getWhen().getTime() : System.currentTimeMillis();
+            t.add(dirName, when, script, ResultStore.get().summaries(dirName));
+        }
+    }
+
+    private void bootstrap() {
+        // 빌드 번호는 Job 마다 따로 매겨지므로 실행 시각 기준으로 최근 빌드를 고름
+        List<BuildEntry> recent = new ArrayList<>(BuildCatalog.get().list());
+        recent.sort(Comparator.comparing(BuildEntry::getWhen).reversed());
+        recent = recent.subList(0, Math.min(BOOTSTRAP_BUILDS, recent.size()));
+        // 오래된 빌드부터 넣어야 창에 최신 실행이 남음
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            BuildEntry b = recent.get(i);
+            add(b.getDirName(), b.getWhen().getTime(), b.getScript(), ResultStore.get().summaries(b.getDirName()));
+        }
+    }
+
+    private synchronized void add(String dir, long when, String script, List<ScenarioSummary> summaries) {
+        for (ScenarioSummary s : summaries) {
+            String key = (script != null ? script : "?") + " / " + (s.getTitle().isEmpty() ? s.getScenario() : s.getTitle());
+            Deque<Run> runs = byScenario.computeIfAbsent(key, k -> new ArrayDeque<>());
+            // 첫 조회와 빌드 완료가 겹쳐 같은 결과가 두 번 들어오는 경우
+            if (runs.stream().anyMatch(r -> r.dir.equals(dir))) continue;
+            Run run = new Run(dir, when, s.isStatus(), s.getDuration());
+            if (runs.isEmpty() || TIME_ORDER.compare(runs.getLast(), run) <= 0) {
+                runs.addLast(run);
+            } else {
+                // 늦게 들어온 이전 실행은 시각 순서 자리에 끼워 넣음
+                List<Run> l = new ArrayList<>(runs);
+                int i = Collections.binarySearch(l, run, TIME_ORDER);
+                l.add(i < 0 ? -i - 1 : i, run);
+                runs.clear();
+                runs.addAll(l);
+            }
+            while (runs.size() > WINDOW) {
+                runs.removeFirst();
+            }
+        }
+    }
+
+    /**
+     * 시나리오별 집계 (sort: flaky | slow | pass, 기본은 이름순)
+     */
+    public synchronized List<Map<String, Object>> compute(String sort, int limit) {
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (Map.Entry<String, Deque<Run>> e : byScenario.entrySet()) {
+            Deque<Run> runs = e.getValue();
+            int passed = 0;
+            int flips = 0;
+            Boolean prev = null;
+            List<Double> durations = new ArrayList<>();
+            for (Run r : runs) {
+                if (r.status) passed++;
+                if (prev != null && prev != r.status) flips++;
+                prev = r.status;
+                if (!Double.isNaN(r.duration)) durations.add(r.duration);
+            }
+            Collections.sort(durations);
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("scenario", e.getKey());
+            m.put("runs", runs.size());
+            m.put("lastBuild", runs.getLast().build);
+            m.put("lastResult", runs.getLast().dir);
+            m.put("passRate", (double) passed / runs.size());
+            m.put("p50", percentile(durations, 0.50));
+            m.put("p95", percentile(durations, 0.95));
+            // 연속한 두 실행의 결과가 바뀐 비율 (항상 통과/항상 실패면 0)
+            m.put("flakiness", runs.size() < 2 ? 0.0 : (double) flips / (runs.size() - 1));
+            out.add(m);
+        }
+        Comparator<Map<String, Object>> order;
+        if ("flaky".equals(sort)) {
+            order = Comparator.comparing((Map<String, Object> m) -> (Double) m.get("flakiness")).reversed();
+        } else if ("slow".equals(sort)) {
+            order = Comparator.comparing((Map<String, Object> m) -> (Double) m.get("p95")).reversed();
+        } else if ("pass".equals(sort)) {
+            order = Comparator.comparing((Map<String, Object> m) -> (Double) m.get("passRate"));
+        } else {
+            order = Comparator.comparing((Map<String, Object> m) -> (String) m.get("scenario"));
+        }
+        out.sort(order);
+        return out.subList(0, Math.min(Math.max(0, limit), out.size()));
+    }
+
+    /**
+     * nearest-rank 백분위 (값이 없으면 0)
+     */
+    static double percentile(List<Double> sorted, double p) {
+        if (sorted.isEmpty()) return 0.0;
+        int rank = (int) Math.ceil(p * sorted.size());
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, rank - 1)));
+    }
+}
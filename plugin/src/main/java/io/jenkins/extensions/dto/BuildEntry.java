@@ -7,16 +7,28 @@ public class BuildEntry {
     private final int    number;
     private final String displayName;
     private final Date when;
+    /** 실행한 스크립트 파일명 (인덱스 이전 빌드는 null) */
+    private final String script;
+    /** SUCCESS | FAIL (알 수 없으면 null) */
+    private final String status;
 
     public BuildEntry(String dirName, int number, String displayName, Date when) {
+        this(dirName, number, displayName, when, null, null);
+    }
+
+    public BuildEntry(String dirName, int number, String displayName, Date when, String script, String status) {
         this.dirName = dirName;
         this.number = number;
         this.displayName = displayName;
         this.when = when;
+        this.script = script;
+        this.status = status;
     }
 
     public String getDirName() { return dirName; }
     public int getNumber() { return number; }
     public String getDisplayName() { return displayName; }
     public Date getWhen() { return when; }
-}
+    public String getScript() { return script; }
+    public String getStatus() { return status; }
+}
\ No newline at end of file
@@ -1,5 +1,6 @@
 package io.jenkins.extensions.dto;
 
+import java.util.Collections;
 import java.util.List;
 
 public class ReportDetail {
@@ -9,6 +10,8 @@ public class ReportDetail {
     private String feedback;
     private String fail;
     private List<String> screenshots;
+    /** 에이전트 단계별 사용량 (기록이 없는 이전 결과는 빈 목록) */
+    private List<StepMetrics> metrics = Collections.emptyList();
 
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
@@ -22,4 +25,8 @@ public class ReportDetail {
     public void setFail(String fail) { this.fail = fail; }
     public List<String> getScreenshots() { return screenshots; }
     public void setScreenshots(List<String> screenshots) { this.screenshots = screenshots; }
+    public List<StepMetrics> getMetrics() { return metrics; }
+    public void setMetrics(List<StepMetrics> metrics) { this.metrics = metrics; }
+    /** 단계별 사용량 합계 */
+    public StepMetrics getMetricsTotal() { return StepMetrics.sum(metrics); }
 }
@@ -0,0 +1,23 @@
+package io.jenkins.extensions.dto;
+
+/**
+ * 결과 저장소 인덱스에 기록되는 시나리오 한 건의 요약
+ */
+public class ScenarioSummary {
+    private final String scenario;
+    private final String title;
+    private final boolean status;
+    private final double duration;
+
+    public ScenarioSummary(String scenario, String title, boolean status, double duration) {
+        this.scenario = scenario;
+        this.title = title;
+        this.status = status;
+        this.duration = duration;
+    }
+
+    public String getScenario() { return scenario; }
+    public String getTitle() { return title; }
+    public boolean isStatus() { return status; }
+    public double getDuration() { return duration; }
+}
@@ -6,12 +6,26 @@ public class ScriptEntry {
     private final String title;
     private final String fileName;
     private final Date modified;
+    /** json | txt */
+    private final String type;
+    /** 스크립트 안의 제목 (json 의 title, txt 는 확장자를 뺀 파일명) */
+    private final String scriptTitle;
+    /** 시나리오 수 (txt 는 0) */
+    private final int scenarioCount;
 
     public ScriptEntry(String title, String fileName, Date modified) {
+        this(title, fileName, modified, null, null, 0);
+    }
+
+    public ScriptEntry(String title, String fileName, Date modified, String type, String scriptTitle,
+                       int scenarioCount) {
         this.title = title;
         this.fileName = fileName;
         // 방어적 복사
         this.modified = modified != null ? new Date(modified.getTime()) : null;
+        this.type = type;
+        this.scriptTitle = scriptTitle;
+        this.scenarioCount = scenarioCount;
     }
 
     public String getTitle() {
@@ -25,4 +39,16 @@ public class ScriptEntry {
     public Date getModified() {
         return modified != null ? new Date(modified.getTime()) : null;
     }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getScriptTitle() {
+        return scriptTitle;
+    }
+
+    public int getScenarioCount() {
+        return scenarioCount;
+    }
 }
@@ -0,0 +1,25 @@
+package io.jenkins.extensions.dto;
+
+/**
+ * 스크립트 본문 검색 결과 한 건
+ */
+public class ScriptHit {
+    private final String fileName;
+    /** 시나리오 번호 (1부터, 스크립트 제목/txt 줄이면 0) */
+    private final int scenario;
+    /** 단계 번호 (1부터, 제목이면 0) */
+    private final int step;
+    private final String text;
+
+    public ScriptHit(String fileName, int scenario, int step, String text) {
+        this.fileName = fileName;
+        this.scenario = scenario;
+        this.step = step;
+        this.text = text;
+    }
+
+    public String getFileName() { return fileName; }
+    public int getScenario() { return scenario; }
+    public int getStep() { return step; }
+    public String getText() { return text; }
+}
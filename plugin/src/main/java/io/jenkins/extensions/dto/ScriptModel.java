@@ -1,7 +1,7 @@
 package io.jenkins.extensions.dto;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jenkins.extensions.JsonSupport;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -83,8 +83,7 @@ public class ScriptModel {
     // JSON → 객체 (scenarios 기반)
     public static ScriptModel fromJson(String json) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            return mapper.readValue(json, ScriptModel.class);
+            return JsonSupport.SCRIPT_READER.readValue(json);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("JSON 파싱 실패", e);
         }
@@ -93,10 +92,7 @@ public class ScriptModel {
     // 객체 → JSON (디버깅용, content 포함)
     public String toJson() {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            return mapper
-                    .writerWithDefaultPrettyPrinter()
-                    .writeValueAsString(this);
+            return JsonSupport.SCRIPT_WRITER.writeValueAsString(this);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("JSON 직렬화 실패", e);
         }
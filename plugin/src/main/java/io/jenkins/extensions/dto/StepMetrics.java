@@ -0,0 +1,58 @@
+package io.jenkins.extensions.dto;
+
+import java.util.List;
+
+/**
+ * 에이전트 한 단계(LLM 호출과 그 응답이 요청한 브라우저 도구 실행)의 사용량
+ */
+public class StepMetrics {
+    private final int step;
+    /** 실행한 브라우저 도구 이름 (최종 응답이면 null) */
+    private final String action;
+    private final int llmCalls;
+    private final long inputTokens;
+    private final long outputTokens;
+    private final double modelMs;
+    private final double browserMs;
+    /** LLM 대신 응답 캐시를 사용한 호출 수 */
+    private final int cachedCalls;
+
+    public StepMetrics(int step, String action, int llmCalls, long inputTokens, long outputTokens,
+                       double modelMs, double browserMs, int cachedCalls) {
+        this.step = step;
+        this.action = action;
+        this.llmCalls = llmCalls;
+        this.inputTokens = inputTokens;
+        this.outputTokens = outputTokens;
+        this.modelMs = modelMs;
+        this.browserMs = browserMs;
+        this.cachedCalls = cachedCalls;
+    }
+
+    /**
+     * 여러 단계의 합계 (step 은 0)
+     */
+    public static StepMetrics sum(List<StepMetrics> list) {
+        int calls = 0, cached = 0;
+        long in = 0, out = 0;
+        double model = 0, browser = 0;
+        for (StepMetrics m : list) {
+            calls += m.llmCalls;
+            cached += m.cachedCalls;
+            in += m.inputTokens;
+            out += m.outputTokens;
+            model += m.modelMs;
+            browser += m.browserMs;
+        }
+        return new StepMetrics(0, null, calls, in, out, model, browser, cached);
+    }
+
+    public int getStep() { return step; }
+    public String getAction() { return action; }
+    public int getLlmCalls() { return llmCalls; }
+    public long getInputTokens() { return inputTokens; }
+    public long getOutputTokens() { return outputTokens; }
+    public double getModelMs() { return modelMs; }
+    public double getBrowserMs() { return browserMs; }
+    public int getCachedCalls() { return cachedCalls; }
+}
@@ -0,0 +1,61 @@
+package io.jenkins.plugins.steps;
+
+import hudson.PluginWrapper;
+import jenkins.model.Jenkins;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * runMST 가 에이전트(노드)별로 공유하는 캐시 디렉터리와 해시 유틸리티
+ */
+final class CacheSupport {
+    /** 캐시 루트 위치를 바꾸고 싶을 때 사용하는 시스템 프로퍼티 */
+    static final String ROOT_PROPERTY = "mst.cacheDir";
+
+    private CacheSupport() { }
+
+    /**
+     * 캐시 루트 아래 name 디렉터리를 반환 (없으면 생성)
+     * 기본 위치는 ~/.mst-cache
+     */
+    static File root(String name) throws IOException {
+        String override = System.getProperty(ROOT_PROPERTY);
+        File base = override != null
+                ? new File(override)
+                : new File(System.getProperty("user.home"), ".mst-cache");
+        File d = new File(base, name);
+        if (!d.isDirectory() && !d.mkdirs() && !d.isDirectory()) {
+            throw new IOException("캐시 디렉터리를 생성하지 못했습니다: " + d.getAbsolutePath());
+        }
+        return d;
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다", e);
+        }
+    }
+
+    /**
+     * 다이제스트를 캐시 키로 쓰기 좋은 길이의 16진 문자열로 변환
+     */
+    static String key(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest()).substring(0, 16);
+    }
+
+    /**
+     * 현재 설치된 플러그인 버전 (개발 실행 등으로 알 수 없으면 "dev")
+     */
+    static String pluginVersion(Class<?> owner) {
+        Jenkins j = Jenkins.getInstanceOrNull();
+        if (j == null) return "dev";
+        PluginWrapper plugin = j.getPluginManager().whichPlugin(owner);
+        return plugin != null ? plugin.getVersion() : "dev";
+    }
+}
@@ -23,6 +23,7 @@ import com.cloudbees.plugins.credentials.CredentialsMatchers;
 import com.cloudbees.plugins.credentials.CredentialsProvider;
 
 import java.util.Collections;
+import java.util.Locale;
 import java.util.Set;
 
 public class CoreLogicStep extends Step {
@@ -31,6 +32,20 @@ public class CoreLogicStep extends Step {
     private String envFileCredentialsId;
     /** 실행할 포맷 (text | json) */
     private String format;
+    /** 한 스크립트의 시나리오를 동시에 실행할 워커(브라우저) 수 (json 포맷 전용) */
+    private int parallelism = 1;
+    /** input 에 여러 스크립트가 지정된 경우 동시에 실행할 스크립트 수 */
+    private int concurrency = 1;
+    /** 스크립트 하나당 최대 실행 시간(분), 0 이면 제한 없음 */
+    private int scriptTimeout;
+    /** runMST 스텝 전체의 최대 실행 시간(분), 0 이면 제한 없음 */
+    private int stepTimeout;
+    /** 시나리오 하나당 최대 실행 시간(분, json 포맷 전용), 0 이면 제한 없음 */
+    private int scenarioTimeout;
+    /** 에이전트에 빌드 간 띄워 둘 MCP 서버 수 (json 포맷 전용), 0 이면 빌드마다 새로 띄움 */
+    private int mcpPool;
+    /** LLM 응답 캐시 사용 방식 (off | record | replay, json 포맷 전용) */
+    private String llmCache = LlmResponseCache.OFF;
 
     @DataBoundConstructor
     public CoreLogicStep(String input) {
@@ -60,6 +75,74 @@ public class CoreLogicStep extends Step {
         this.format = format;
     }
 
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @DataBoundSetter
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    @DataBoundSetter
+    public void setConcurrency(int concurrency) {
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    public int getScriptTimeout() {
+        return scriptTimeout;
+    }
+
+    @DataBoundSetter
+    public void setScriptTimeout(int scriptTimeout) {
+        this.scriptTimeout = Math.max(0, scriptTimeout);
+    }
+
+    public int getStepTimeout() {
+        return stepTimeout;
+    }
+
+    @DataBoundSetter
+    public void setStepTimeout(int stepTimeout) {
+        this.stepTimeout = Math.max(0, stepTimeout);
+    }
+
+    public int getScenarioTimeout() {
+        return scenarioTimeout;
+    }
+
+    @DataBoundSetter
+    public void setScenarioTimeout(int scenarioTimeout) {
+        this.scenarioTimeout = Math.max(0, scenarioTimeout);
+    }
+
+    public int getMcpPool() {
+        return mcpPool;
+    }
+
+    @DataBoundSetter
+    public void setMcpPool(int mcpPool) {
+        this.mcpPool = Math.max(0, mcpPool);
+    }
+
+    public String getLlmCache() {
+        return llmCache;
+    }
+
+    @DataBoundSetter
+    public void setLlmCache(String llmCache) {
+        String mode = llmCache == null ? LlmResponseCache.OFF : llmCache.trim().toLowerCase(Locale.ROOT);
+        if (!mode.equals(LlmResponseCache.OFF) && !mode.equals(LlmResponseCache.RECORD)
+                && !mode.equals(LlmResponseCache.REPLAY)) {
+            throw new IllegalArgumentException("llmCache 는 off, record, replay 중 하나여야 합니다: " + llmCache);
+        }
+        this.llmCache = mode;
+    }
+
     @Override
     public StepExecution start(StepContext context) throws Exception {
         return new CoreLogicStepExecution(this, context);
@@ -2,84 +2,275 @@ package io.jenkins.plugins.steps;
 
 import com.cloudbees.plugins.credentials.CredentialsProvider;
 import hudson.FilePath;
+import hudson.Launcher;
 import hudson.model.Run;
 import hudson.model.TaskListener;
 import hudson.security.ACL;
 import io.jenkins.actions.BuildReportAction;
+import io.jenkins.actions.ScriptProgress;
+import io.jenkins.extensions.BuildCatalog;
+import io.jenkins.extensions.ResultStore;
+import io.jenkins.extensions.Thumbnails;
+import io.jenkins.extensions.TrendAnalytics;
 import org.apache.commons.io.IOUtils;
 import org.jenkinsci.plugins.plaincredentials.FileCredentials;
-import org.jenkinsci.plugins.workflow.steps.SynchronousNonBlockingStepExecution;
 import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.AbortException;
+import hudson.model.Computer;
 import jenkins.model.Jenkins;
+import jenkins.util.Timer;
 
 import java.io.*;
 import java.net.HttpURLConnection;
-import java.net.URL;
-import java.net.URISyntaxException;
-import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.Enumeration;
+import java.security.MessageDigest;
+import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
-public class CoreLogicStepExecution extends SynchronousNonBlockingStepExecution<Void> {
+public class CoreLogicStepExecution extends StepExecution {
     private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = Logger.getLogger(CoreLogicStepExecution.class.getName());
+    /** pyproject.toml + uv.lock 해시별로 에이전트에 하나씩 두는 Python 가상환경 풀 */
+    private static final EnvironmentPool VENV_POOL = new EnvironmentPool(
+            "venvs",
+            Integer.getInteger(CoreLogicStepExecution.class.getName() + ".venvPoolSize", 3),
+            Integer.getInteger(CoreLogicStepExecution.class.getName() + ".venvMaxAgeDays", 14));
+
+    /** typescript/package.json 해시별 node_modules 캐시 */
+    private static final EnvironmentPool NODE_MODULES_POOL = new EnvironmentPool(
+            "node_modules",
+            Integer.getInteger(CoreLogicStepExecution.class.getName() + ".nodeModulesPoolSize", 3),
+            Integer.getInteger(CoreLogicStepExecution.class.getName() + ".nodeModulesMaxAgeDays", 14));
+
+    /** 풀의 MCP 서버를 다시 띄우는 주기(초) */
+    private static final int MCP_POOL_MAX_AGE =
+            Integer.getInteger(CoreLogicStepExecution.class.getName() + ".mcpPoolMaxAge", 3600);
+
     private final transient CoreLogicStep step;
+    /** 실행 중인 자식 프로세스 (stop() 에서 종료) */
+    private final transient Set<ShellProcess> processes = ConcurrentHashMap.newKeySet();
+    private transient volatile ScriptScheduler scheduler;
+    private transient Launcher launcher;
+    /** 실행 중 진행 상황을 보여주는 빌드 페이지 (mcp-report) */
+    private transient volatile BuildReportAction report;
+    private transient volatile boolean stopped;
 
     protected CoreLogicStepExecution(CoreLogicStep step, StepContext context) {
         super(context);
         this.step = step;
     }
 
+    /**
+     * 준비 단계(리소스 추출, 가상환경 등)만 공용 스레드 풀에서 수행하고,
+     * 테스트 프로세스의 종료 콜백에서 StepContext 를 완료합니다.
+     */
+    @Override
+    public boolean start() throws Exception {
+        int stepTimeout = step.getStepTimeout();
+        ScheduledFuture<?> deadline = stepTimeout > 0
+                ? Timer.get().schedule(() -> cancel(new AbortException("runMST 시간 초과 (" + stepTimeout + "분)"), "TIMEOUT"),
+                        stepTimeout, TimeUnit.MINUTES)
+                : null;
+        Computer.threadPoolForRemoting.submit(() -> {
+            try {
+                launch().whenComplete((v, t) -> {
+                    if (deadline != null) deadline.cancel(false);
+                    // 준비 단계에서 끝난 경우에도 진행 페이지가 실행 중으로 남지 않도록
+                    finishReport("FAIL");
+                    if (stopped) return;
+                    if (t != null) {
+                        getContext().onFailure(t instanceof CompletionException && t.getCause() != null ? t.getCause() : t);
+                    } else {
+                        getContext().onSuccess(null);
+                    }
+                });
+            } catch (Throwable t) {
+                if (deadline != null) deadline.cancel(false);
+                finishReport("FAIL");
+                if (!stopped) getContext().onFailure(t);
+            }
+        });
+        return false;
+    }
+
     @Override
-    protected Void run() throws Exception {
+    public void stop(@NonNull Throwable cause) throws Exception {
+        cancel(cause, "ABORTED");
+    }
+
+    /**
+     * 중단/시간 초과 공통 처리
+     * 대기 중인 스크립트는 시작하지 않고, 실행 중인 프로세스 트리는 에이전트 통신이 걸리므로 공용 스레드 풀에서 종료합니다.
+     */
+    private void cancel(Throwable cause, String status) {
+        synchronized (this) {
+            if (stopped) return;
+            stopped = true;
+        }
+        finishReport(status);
+        ScriptScheduler s = scheduler;
+        if (s != null) s.cancel();
+        if (processes != null) {
+            for (ShellProcess p : processes) {
+                Computer.threadPoolForRemoting.submit(p::destroy);
+            }
+        }
+        getContext().onFailure(cause);
+    }
+
+    @Override
+    public void onResume() {
+        // 자식 프로세스는 컨트롤러 재시작 후 이어서 추적할 수 없음
+        // report 는 저장되지 않으므로 build.xml 에 실행 중으로 남은 진행 페이지를 찾아 정리
+        try {
+            Run<?, ?> run = getContext().get(Run.class);
+            boolean changed = false;
+            for (BuildReportAction a : run != null ? run.getActions(BuildReportAction.class)
+                    : Collections.<BuildReportAction>emptyList()) {
+                if (!a.isRunning()) continue;
+                a.abort("ABORTED");
+                changed = true;
+            }
+            if (changed) run.save();
+        } catch (IOException | InterruptedException e) {
+            LOGGER.log(Level.WARNING, "진행 페이지 정리 실패", e);
+        }
+        getContext().onFailure(new AbortException("Jenkins 재시작으로 runMST 실행이 중단되었습니다"));
+    }
+
+    private CompletableFuture<Void> launch() throws Exception {
         FilePath workspace = getContext().get(FilePath.class);
         TaskListener listener = getContext().get(TaskListener.class);
         Run<?, ?> run = getContext().get(Run.class);
+        launcher = getContext().get(Launcher.class);
 
-        String scenarioName = step.getInput();
         // format 값이 text면 .txt, 그 외(json)면 .json
         String fmt = step.getFormat() != null ? step.getFormat() : "json";
-        if ("text".equalsIgnoreCase(fmt)) {
-            if (!scenarioName.endsWith(".txt")) scenarioName += ".txt";
-        } else {
-            if (!scenarioName.endsWith(".json")) scenarioName += ".json";
-        }
+        String ext = "text".equalsIgnoreCase(fmt) ? ".txt" : ".json";
 
         File jenkinsHome = Jenkins.get().getRootDir();
         File scriptsDir = new File(jenkinsHome, "scripts");
-        File scenarioFile = new File(scriptsDir, scenarioName);
-        if (!scenarioFile.exists()) {
-            throw new IllegalArgumentException("시나리오 파일이 없습니다: " + scenarioFile);
+        List<File> scenarioFiles = resolveScripts(scriptsDir, step.getInput(), ext);
+        for (File f : scenarioFiles) {
+            listener.getLogger().println("▶ 시나리오 로드: " + f.getName());
         }
-        listener.getLogger().println("▶ 시나리오 로드: " + scenarioName);
 
         File resultsDir = new File(jenkinsHome, "results");
         if (!resultsDir.exists() && !resultsDir.mkdirs()) {
             listener.getLogger().println("▶ WARNING: results 디렉터리 생성 실패: " + resultsDir);
         }
 
+        // 스크립트는 컨트롤러에 있으므로 빌드 노드의 워크스페이스로 복사해 두고 사용
+        Map<File, FilePath> staged = stageScripts(workspace, scenarioFiles);
+
+        // 결과가 나오기 전에도 빌드 페이지에서 진행 상황을 볼 수 있도록 먼저 붙여 둠
+        report = new BuildReportAction(step.getInput(), ScriptProgress.RUNNING);
+        run.addAction(report);
+        run.save();
+
         // format이 text이면 TS 브랜치, 그 외(json)이면 Python 브랜치
         if ("text".equalsIgnoreCase(fmt)) {
-            runTypeScriptBranch(workspace, listener, scenarioFile);
+            return runTypeScriptBranch(workspace, listener, staged, resultsDir);
         } else {
-            runPythonBranch(workspace, listener, scenarioFile, run, resultsDir);
-            // 성공/실패 기록
-            String result = (getContext().get(Run.class) != null) ? "SUCCESS" : "FAIL";
-            run.addAction(new BuildReportAction(step.getInput(), result));
-            run.save();
+            return runPythonBranch(workspace, listener, staged, run, resultsDir);
+        }
+    }
+
+    /**
+     * input 을 쉼표로 나눠 각 항목을 스크립트 이름 또는 glob 패턴으로 해석
+     * 예) "login, checkout_*"
+     */
+    private List<File> resolveScripts(File scriptsDir, String input, String ext) {
+        Set<File> out = new LinkedHashSet<>();
+        for (String raw : input.split(",")) {
+            String name = raw.trim();
+            if (name.isEmpty()) continue;
+            if (!name.endsWith(ext)) name += ext;
+            if (name.matches(".*[*?\\[{].*")) {
+                PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + name);
+                File[] matches = scriptsDir.listFiles(f -> f.isFile() && matcher.matches(Paths.get(f.getName())));
+                if (matches != null) {
+                    Arrays.sort(matches, Comparator.comparing(File::getName));
+                    out.addAll(Arrays.asList(matches));
+                }
+            } else {
+                File scenarioFile = new File(scriptsDir, name);
+                if (!scenarioFile.exists()) {
+                    throw new IllegalArgumentException("시나리오 파일이 없습니다: " + scenarioFile);
+                }
+                out.add(scenarioFile);
+            }
         }
+        if (out.isEmpty()) {
+            throw new IllegalArgumentException("일치하는 시나리오 파일이 없습니다: " + input);
+        }
+        return new ArrayList<>(out);
+    }
 
-        return null;
+    private Map<File, FilePath> stageScripts(FilePath workspace, List<File> scenarioFiles) throws IOException, InterruptedException {
+        FilePath scenariosDir = workspace.child("resources/scenarios");
+        scenariosDir.mkdirs();
+        Map<File, FilePath> staged = new LinkedHashMap<>();
+        for (File f : scenarioFiles) {
+            FilePath target = scenariosDir.child(f.getName());
+            new FilePath(f).copyTo(target);
+            staged.put(f, target);
+        }
+        return staged;
+    }
+
+    /**
+     * 스크립트 하나의 결과 작업 폴더 (빌드 노드 워크스페이스 안)
+     */
+    private FilePath prepareRunDir(FilePath workspace, File scenarioFile) throws IOException, InterruptedException {
+        FilePath runDir = workspace.child("resources/runs/" + runId(scenarioFile));
+        runDir.deleteRecursive();
+        runDir.child("results").mkdirs();
+        return runDir;
+    }
+
+    /**
+     * 빌드 노드에 생성된 결과를 컨트롤러의 $JENKINS_HOME/results 로 가져온 뒤 작업 폴더 삭제
+     * 결과 폴더는 스크립트 이름과 종료 코드 기준 상태로 인덱스에 기록합니다.
+     */
+    private void collectResults(FilePath runDir, File resultsDir, File scenarioFile, int exit, String label,
+                                TaskListener listener) {
+        try {
+            FilePath src = runDir.child("results");
+            List<FilePath> builds = src.listDirectories();
+            int copied = src.copyRecursiveTo("**/*", new FilePath(resultsDir));
+            listener.getLogger().println(label + "▶ 결과 " + copied + "개 파일을 " + resultsDir + " 로 복사했습니다.");
+            for (FilePath b : builds) {
+                File buildDir = new File(resultsDir, b.getName());
+                try {
+                    ResultStore.get().importBuild(buildDir);
+                } catch (IOException e) {
+                    listener.getLogger().println(label + "▶ WARNING: 결과 저장소 기록 실패: " + e.getMessage());
+                }
+                BuildCatalog.get().record(b.getName(), new Date(), scenarioFile.getName(), exit == 0 ? "SUCCESS" : "FAIL");
+                TrendAnalytics.onBuildImported(b.getName(), scenarioFile.getName());
+                Thumbnails.pregenerate(buildDir);
+            }
+            runDir.deleteRecursive();
+        } catch (IOException | InterruptedException e) {
+            listener.error(label + "❌ 결과 복사 실패: " + e.getMessage());
+        }
     }
 
-    private void runPythonBranch(FilePath workspace, TaskListener listener, File scenarioFile, Run<?,?> run, File resultsDir) throws Exception {
+    private CompletableFuture<Void> runPythonBranch(FilePath workspace, TaskListener listener, Map<File, FilePath> scenarioFiles, Run<?,?> run, File resultsDir) throws Exception {
         FilePath pythonDir = workspace.child("resources/python");
         pythonDir.mkdirs();
 
@@ -88,7 +279,7 @@ public class CoreLogicStepExecution extends SynchronousNonBlockingStepExecution<
         );
         if (envCred == null) {
             listener.error("❌ credentialsId='" + step.getEnvFileCredentialsId() + "'에 해당하는 Secret File 크리덴셜을 찾을 수 없습니다.");
-            return;
+            return CompletableFuture.completedFuture(null);
         }
         byte[] content;
         try (InputStream is = envCred.getContent()) {
@@ -98,41 +289,149 @@ public class CoreLogicStepExecution extends SynchronousNonBlockingStepExecution<
         envFile.write(new String(content, StandardCharsets.UTF_8), "UTF-8");
         listener.getLogger().println("✅ .env 파일을 " + envFile.getRemote() + "에 복사했습니다.");
 
+        boolean launched = false;
+        String leasedVenv = null;
         try {
             extractResources("python", pythonDir, listener);
             cleanDosLineEndings(pythonDir, listener);
             changeMode(pythonDir.child("setup.sh"), listener, 0755);
-            int setupExit = executeShell(pythonDir, listener, "bash setup.sh");
+            String leased = venvKey(pythonDir);
+            String venvDir = VENV_POOL.acquire(pythonDir, leased,
+                    "UV_PROJECT_ENVIRONMENT=\"$MST_POOL_DIR/.venv\" bash setup.sh venv", ".venv/bin/activate", listener);
+            leasedVenv = leased;
+            int setupExit = executeShell(pythonDir, listener, "bash setup.sh mcp");
             if (setupExit != 0) {
                 listener.error("❌ setup.sh 실행 실패 (exit=" + setupExit + ")");
-                return;
+                return CompletableFuture.completedFuture(null);
             }
 
-            listener.getLogger().println("▶ Python 테스트 실행: main_logic.py (activate venv)");
+            // replay 는 지금까지 모은 응답을 내려보내 읽게 하고, record 는 새 응답만 기록
+            String llmCache = step.getLlmCache();
+            boolean cacheOn = !LlmResponseCache.OFF.equals(llmCache);
+            String cacheDir = LlmResponseCache.REPLAY.equals(llmCache)
+                    ? LlmResponseCache.stage(workspace, listener).getRemote() : "";
+
             String buildNumber = String.valueOf(run.getNumber());
-            String activateScript = new File(pythonDir.getRemote(), ".venv/bin/activate").getAbsolutePath();
-            String cmd = String.join(" && ",
-                    String.format("source %s", activateScript),
-                    String.format("python main_logic.py --file '%s' --build %s --output_dir '%s'",
-                            scenarioFile.getAbsolutePath(), buildNumber, resultsDir.getAbsolutePath()
-                    )
-            );
-            int testExit = executeShell(pythonDir, listener, cmd);
-            listener.getLogger().println("▶ 테스트 종료 (exit=" + testExit + ")");
-
-            String result = testExit == 0 ? "SUCCESS" : "FAIL";
-            run.addAction(new BuildReportAction(step.getInput(), result));
-            run.save();
+            String activateScript = venvDir + "/.venv/bin/activate";
+            boolean multiple = scenarioFiles.size() > 1;
+            scheduler = new ScriptScheduler(step.getConcurrency(), listener);
+            CompletableFuture<Void> result = scheduler.runAll(new ArrayList<>(scenarioFiles.keySet()), (scenarioFile, label) -> {
+                listener.getLogger().println(label + "▶ Python 테스트 실행: main_logic.py (activate venv, parallelism="
+                        + step.getParallelism() + ")");
+                FilePath runDir;
+                try {
+                    runDir = prepareRunDir(workspace, scenarioFile);
+                } catch (InterruptedException e) {
+                    throw new AbortException("runMST 실행이 중단되었습니다");
+                }
+                ScriptProgress progress = report.addScript(scenarioFile.getName(), runDir.child("results"));
+                String cmd = String.join(" && ",
+                        String.format("source '%s'", activateScript),
+                        String.format("MST_PROGRESS=1 python main_logic.py --file '%s' --build %s --output_dir '%s' --parallelism %d%s%s%s%s",
+                                scenarioFiles.get(scenarioFile).getRemote(), buildNumber, runDir.child("results").getRemote(),
+                                step.getParallelism(),
+                                // 같은 빌드에서 여러 스크립트가 결과 폴더를 공유하지 않도록 구분
+                                multiple ? String.format(" --run_id '%s'", runId(scenarioFile)) : "",
+                                step.getMcpPool() > 0
+                                        ? String.format(" --mcp_pool %d --mcp_pool_max_age %d", step.getMcpPool(), MCP_POOL_MAX_AGE)
+                                        : "",
+                                cacheOn
+                                        ? String.format(" --llm_cache %s --llm_cache_dir '%s' --llm_cache_out '%s'",
+                                                llmCache, cacheDir, runDir.child("llm-cache").getRemote())
+                                        : "",
+                                step.getScenarioTimeout() > 0
+                                        ? String.format(" --scenario_timeout %d", step.getScenarioTimeout() * 60)
+                                        : ""
+                        )
+                );
+                return launchShell(pythonDir, listener, cmd, label, step.getScriptTimeout(), events(progress, label, listener))
+                        .thenApplyAsync(testExit -> {
+                            listener.getLogger().println(label + "▶ 테스트 종료 (exit=" + testExit + ")");
+                            if (cacheOn) LlmResponseCache.collect(runDir, label, listener);
+                            collectResults(runDir, resultsDir, scenarioFile, testExit, label, listener);
+                            progress.finish(testExit == 0 ? "SUCCESS" : "FAIL");
+                            return testExit;
+                        }, Computer.threadPoolForRemoting);
+            }).thenAccept(exits -> {
+                boolean success = exits.values().stream().allMatch(e -> e == 0);
+                finishReport(success ? "SUCCESS" : "FAIL");
+            }).whenComplete((v, t) -> cleanup(pythonDir, VENV_POOL, leased, listener));
+            launched = true;
+            return result;
         } finally {
-            listener.getLogger().println("▶ .env 파일 삭제");
-            pythonDir.child(".env").delete();
+            if (!launched) cleanup(pythonDir, VENV_POOL, leasedVenv, listener);
+        }
+    }
+
+    /**
+     * .env 삭제 후 임대한 환경 반납 (key 가 null 이면 임대 전에 끝난 것)
+     */
+    private void cleanup(FilePath dir, EnvironmentPool pool, String key, TaskListener listener) {
+        deleteEnv(dir, listener);
+        if (key != null) pool.release(dir, key, listener);
+    }
+
+    private void deleteEnv(FilePath dir, TaskListener listener) {
+        listener.getLogger().println("▶ .env 파일 삭제");
+        try {
+            dir.child(".env").delete();
+        } catch (IOException | InterruptedException e) {
+            listener.getLogger().println("▶ WARNING: .env 삭제 실패: " + e.getMessage());
         }
     }
 
-    private void runTypeScriptBranch(
+    /**
+     * 결과 폴더 이름에 붙일 스크립트 식별자 (확장자 제외, 파일 시스템 안전 문자만)
+     * 문자를 바꾼 경우 a_b 와 a-b 처럼 서로 다른 파일이 같은 식별자가 되지 않도록 파일 이름 해시를 붙입니다.
+     */
+    private static String runId(File scenarioFile) {
+        String name = scenarioFile.getName();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String safe = base.replaceAll("[^A-Za-z0-9가-힣.-]", "-");
+        if (safe.equals(base)) return safe;
+        MessageDigest md = CacheSupport.sha256();
+        md.update(name.getBytes(StandardCharsets.UTF_8));
+        return safe + "-" + CacheSupport.key(md).substring(0, 8);
+    }
+
+    /**
+     * pyproject.toml + uv.lock 내용으로 가상환경 풀 키 계산
+     */
+    private String venvKey(FilePath pythonDir) throws IOException, InterruptedException {
+        MessageDigest md = CacheSupport.sha256();
+        for (String name : new String[] {"pyproject.toml", "uv.lock"}) {
+            FilePath f = pythonDir.child(name);
+            if (f.exists()) {
+                md.update(f.readToString().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return CacheSupport.key(md);
+    }
+
+    private String nodeModulesKey(FilePath manifest) throws IOException, InterruptedException {
+        MessageDigest md = CacheSupport.sha256();
+        md.update(manifest.readToString().getBytes(StandardCharsets.UTF_8));
+        return CacheSupport.key(md);
+    }
+
+    /**
+     * 워크스페이스의 node_modules 를 캐시된 디렉터리에 대한 심볼릭 링크로 교체
+     */
+    private void linkNodeModules(FilePath tsDir, String cached, TaskListener listener) throws IOException, InterruptedException {
+        FilePath link = tsDir.child("node_modules");
+        if (cached.equals(link.readLink())) return;
+        // 심볼릭 링크라면 링크만, 실제 디렉터리라면 내용까지 삭제
+        link.deleteRecursive();
+        link.symlinkTo(cached, listener);
+        listener.getLogger().println("▶ node_modules 연결: " + link.getRemote() + " -> " + cached);
+    }
+
+    private CompletableFuture<Void> runTypeScriptBranch(
             FilePath workspace,
             TaskListener listener,
-            File scenarioFile
+            Map<File, FilePath> scenarioFiles,
+            File resultsDir
     ) throws Exception {
         FilePath tsDir = workspace.child("resources/typescript");
         tsDir.mkdirs();
@@ -143,7 +442,7 @@ public class CoreLogicStepExecution extends SynchronousNonBlockingStepExecution<
         );
         if (envCred == null) {
             listener.error("❌ credentialsId='" + step.getEnvFileCredentialsId() + "'에 해당하는 Secret File 크리덴셜을 찾을 수 없습니다.");
-            return;
+            return CompletableFuture.completedFuture(null);
         }
         byte[] content;
         try (InputStream is = envCred.getContent()) {
@@ -153,91 +452,64 @@ public class CoreLogicStepExecution extends SynchronousNonBlockingStepExecution<
         envFile.write(new String(content, StandardCharsets.UTF_8), "UTF-8");
         listener.getLogger().println("✅ .env 파일을 " + envFile.getRemote() + "에 복사했습니다.");
 
+        boolean launched = false;
+        String leasedModules = null;
         try {
             // TS 리소스 추출
             extractResources("typescript", tsDir, listener);
 
-            // 의존성 설치 (Playwright 및 playwright-core 포함)
-            listener.getLogger().println("▶ npm install 시작");
-            int installExit = executeShell(tsDir, listener, "npm install");
-            if (installExit != 0) {
-                listener.error("❌ npm install 실패 (exit=" + installExit + ")");
-                return;
-            }
-            listener.getLogger().println("▶ playwright-core 추가 설치 시작");
-            int coreExit = executeShell(tsDir, listener, "npm install playwright-core");
-            if (coreExit != 0) {
-                listener.error("❌ playwright-core 설치 실패 (exit=" + coreExit + ")");
-                return;
-            }
+            // 의존성 설치 (playwright-core 는 package.json 에 포함되어 있음)
+            FilePath manifest = tsDir.child("package.json");
+            String leased = nodeModulesKey(manifest);
+            String modulesDir = NODE_MODULES_POOL.acquire(tsDir, leased,
+                    "cp package.json \"$MST_POOL_DIR/\" && cd \"$MST_POOL_DIR\" && echo '▶ npm install 시작' && npm install",
+                    "node_modules", listener);
+            leasedModules = leased;
+            linkNodeModules(tsDir, modulesDir + "/node_modules", listener);
 
             // 빌드 번호 가져오기 (Jenkins Run 객체 사용)
             Run<?, ?> run = getContext().get(Run.class);
             String buildNumber = (run != null) ? Integer.toString(run.getNumber()) : "";
 
             // TS 스크립트 실행: index.ts + --build 플래그
-            listener.getLogger().println("▶ TS 스크립트 실행: index.ts (시나리오 파일과 빌드 번호 전달)");
-            String cmd = String.format(
-                    "npx ts-node index.ts '%s' --build %s",
-                    scenarioFile.getAbsolutePath(),
-                    buildNumber
-            );
-            int tsExit = executeShell(tsDir, listener, cmd);
-            listener.getLogger().println("▶ TS 종료 (exit=" + tsExit + ")");
+            boolean multiple = scenarioFiles.size() > 1;
+            scheduler = new ScriptScheduler(step.getConcurrency(), listener);
+            CompletableFuture<Void> result = scheduler.runAll(new ArrayList<>(scenarioFiles.keySet()), (scenarioFile, label) -> {
+                listener.getLogger().println(label + "▶ TS 스크립트 실행: index.ts (시나리오 파일과 빌드 번호 전달)");
+                FilePath runDir;
+                try {
+                    runDir = prepareRunDir(workspace, scenarioFile);
+                } catch (InterruptedException e) {
+                    throw new AbortException("runMST 실행이 중단되었습니다");
+                }
+                ScriptProgress progress = report.addScript(scenarioFile.getName(), runDir.child("results"));
+                // TS 러너는 $JENKINS_HOME/results 에 결과를 쓰므로 작업 폴더를 가리키게 함
+                String cmd = String.format(
+                        "JENKINS_HOME='%s' MST_PROGRESS=1 npx ts-node index.ts '%s' --build %s%s",
+                        runDir.getRemote(),
+                        scenarioFiles.get(scenarioFile).getRemote(),
+                        buildNumber,
+                        multiple ? String.format(" --run '%s'", runId(scenarioFile)) : ""
+                );
+                return launchShell(tsDir, listener, cmd, label, step.getScriptTimeout(), events(progress, label, listener))
+                        .thenApplyAsync(tsExit -> {
+                            listener.getLogger().println(label + "▶ TS 종료 (exit=" + tsExit + ")");
+                            collectResults(runDir, resultsDir, scenarioFile, tsExit, label, listener);
+                            progress.finish(tsExit == 0 ? "SUCCESS" : "FAIL");
+                            return tsExit;
+                        }, Computer.threadPoolForRemoting);
+            }).thenAccept(exits -> finishReport(exits.values().stream().allMatch(e -> e == 0) ? "SUCCESS" : "FAIL"))
+                    // .env 정리
+                    .whenComplete((v, t) -> cleanup(tsDir, NODE_MODULES_POOL, leased, listener));
+            launched = true;
+            return result;
         } finally {
-            // .env 정리
-            listener.getLogger().println("▶ .env 파일 삭제");
-            tsDir.child(".env").delete();
+            if (!launched) cleanup(tsDir, NODE_MODULES_POOL, leasedModules, listener);
         }
     }
 
-    private void extractResources(String resourcePath, FilePath targetDir, TaskListener listener) throws IOException {
-        ClassLoader cl = getClass().getClassLoader();
-        URL dirURL = cl.getResource(resourcePath);
-        if (dirURL == null) throw new IOException("리소스 경로를 찾을 수 없습니다: " + resourcePath);
-        if ("file".equals(dirURL.getProtocol())) {
-            try {
-                Path src = Paths.get(dirURL.toURI());
-                Files.walk(src).forEach(path -> {
-                    try {
-                        Path rel = src.relativize(path);
-                        File dest = new File(targetDir.getRemote(), rel.toString());
-                        if (Files.isDirectory(path)) {
-                            dest.mkdirs();
-                        } else {
-                            dest.getParentFile().mkdirs();
-                            Files.copy(path, dest.toPath());
-                        }
-                    } catch (Exception e) {
-                        listener.getLogger().println("리소스 복사 오류: " + e.getMessage());
-                    }
-                });
-            } catch (URISyntaxException e) {
-                throw new IOException("리소스 경로 URI 변환 실패", e);
-            }
-        } else if ("jar".equals(dirURL.getProtocol())) {
-            String jarPath = dirURL.getPath().substring(5, dirURL.getPath().indexOf("!"));
-            try (JarFile jar = new JarFile(URLDecoder.decode(jarPath, "UTF-8"))) {
-                Enumeration<JarEntry> entries = jar.entries();
-                while (entries.hasMoreElements()) {
-                    JarEntry entry = entries.nextElement();
-                    String name = entry.getName();
-                    if (!name.startsWith(resourcePath + "/")) continue;
-                    File out = new File(targetDir.getRemote(), name.substring(resourcePath.length() + 1));
-                    if (entry.isDirectory()) {
-                        out.mkdirs();
-                    } else {
-                        out.getParentFile().mkdirs();
-                        try (InputStream in = jar.getInputStream(entry);
-                             OutputStream os = new FileOutputStream(out)) {
-                            IOUtils.copy(in, os);
-                        }
-                    }
-                }
-            }
-        } else {
-            throw new IOException("지원하지 않는 프로토콜: " + dirURL.getProtocol());
-        }
+    private void extractResources(String resourcePath, FilePath targetDir, TaskListener listener) throws IOException, InterruptedException {
+        ResourceCache.extract(getClass(), resourcePath, targetDir, listener);
     }
 
     private void cleanDosLineEndings(FilePath dir, TaskListener listener) throws IOException, InterruptedException {
@@ -251,18 +523,50 @@ public class CoreLogicStepExecution extends SynchronousNonBlockingStepExecution<
         file.chmod(mode);
     }
 
+    /**
+     * 준비 단계용: 명령이 끝날 때까지 기다린 뒤 종료 코드 반환
+     */
     private int executeShell(FilePath dir, TaskListener listener, String command) throws IOException, InterruptedException {
-        ProcessBuilder pb = new ProcessBuilder("bash", "-c", command)
-                .directory(new File(dir.getRemote()))
-                .redirectErrorStream(true);
-        Process proc = pb.start();
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(proc.getInputStream(), StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                listener.getLogger().println(line);
-            }
+        try {
+            return launchShell(dir, listener, command, "", 0, null).get();
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * bash -c 로 명령을 시작하고 종료 코드로 완료되는 future 를 반환
+     * 출력 각 줄 앞에는 label 을 붙여 빌드 로그로 전달합니다.
+     */
+    private CompletableFuture<Integer> launchShell(FilePath dir, TaskListener listener, String command, String label,
+                                                  int timeoutMinutes, Consumer<String> events) throws IOException {
+        if (stopped) throw new AbortException("runMST 실행이 중단되었습니다");
+        ShellProcess sp = ShellProcess.start(launcher, dir, command, listener, label, timeoutMinutes, events);
+        processes.add(sp);
+        return sp.exit().whenComplete((code, t) -> processes.remove(sp));
+    }
+
+    /**
+     * 러너의 진행 이벤트를 진행 페이지에 반영하고 요약을 빌드 로그에 남기는 소비자
+     */
+    private static Consumer<String> events(ScriptProgress progress, String label, TaskListener listener) {
+        return line -> {
+            String msg = progress.onEvent(line);
+            if (msg != null) listener.getLogger().println(label + msg);
+        };
+    }
+
+    /**
+     * 진행 페이지 상태를 확정하고 빌드 기록에 저장 (이미 확정되었으면 무시)
+     */
+    private void finishReport(String status) {
+        BuildReportAction r = report;
+        if (r == null || !r.isRunning()) return;
+        r.setStatus(status);
+        try {
+            getContext().get(Run.class).save();
+        } catch (IOException | InterruptedException e) {
+            LOGGER.log(Level.WARNING, "빌드 기록 저장 실패", e);
         }
-        proc.waitFor();
-        return proc.exitValue();
     }
 }
@@ -0,0 +1,285 @@
+package io.jenkins.plugins.steps;
+
+import hudson.FilePath;
+import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+import org.apache.commons.io.FileUtils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 키(의존성 명세 해시)별로 한 번만 만들어 여러 빌드가 재사용하는 환경 디렉터리 풀
+ *
+ * 풀은 빌드가 실행되는 노드(에이전트)에 존재하며, 모든 작업은 해당 노드에서 수행됩니다.
+ * 생성은 &lt;key&gt;.lock 파일 잠금으로 프로세스 간, 키별 모니터로 JVM 내에서 직렬화하고,
+ * 오래 쓰이지 않은 환경은 LRU 순서로 정리합니다.
+ * 빌드가 환경을 쓰는 동안(acquire ~ release)은 같은 잠금 파일의 공유 잠금을 임대로 잡아 두어,
+ * 정리(배타 tryLock)가 실행 중인 환경을 지우지 못하게 합니다.
+ */
+final class EnvironmentPool implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final String READY = ".ready";
+    private static final String LOCK_SUFFIX = ".lock";
+    /** 최근에 임대된 환경은 개수 제한을 넘어도 지우지 않음 */
+    private static final long GRACE_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final Map<String, Object> JVM_LOCKS = new ConcurrentHashMap<>();
+    /**
+     * 이 JVM 이 보유한 임대 (환경 경로 → 공유 잠금)
+     * 같은 JVM 에서는 한 파일에 잠금을 하나만 잡을 수 있으므로 빌드 수만큼 참조 수를 셉니다.
+     */
+    private static final Map<String, Lease> LEASES = new ConcurrentHashMap<>();
+
+    private static final class Lease {
+        final FileChannel channel;
+        final FileLock lock;
+        int count;
+
+        Lease(FileChannel channel, FileLock lock) {
+            this.channel = channel;
+            this.lock = lock;
+        }
+    }
+
+    interface Builder {
+        void build(File dir) throws IOException, InterruptedException;
+    }
+
+    private final String name;
+    private final int maxEntries;
+    private final long maxAgeMillis;
+
+    EnvironmentPool(String name, int maxEntries, long maxAgeDays) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.maxAgeMillis = TimeUnit.DAYS.toMillis(maxAgeDays);
+    }
+
+    /**
+     * workDir 가 있는 노드에서 key 에 해당하는 준비된 환경 디렉터리 경로를 반환
+     * 없으면 workDir 에서 buildCommand 를 실행해 만듭니다. 명령에서는 $MST_POOL_DIR 로
+     * 생성할 디렉터리를 참조할 수 있고, 실행 후 expect 경로가 있어야 성공으로 봅니다.
+     * 환경은 release 를 호출할 때까지 임대되어 정리 대상에서 제외됩니다.
+     */
+    String acquire(FilePath workDir, String key, String buildCommand, String expect, TaskListener listener)
+            throws IOException, InterruptedException {
+        return workDir.act(new Acquire(this, key, buildCommand, expect, listener));
+    }
+
+    /**
+     * acquire 로 임대한 환경을 반납 (마지막 사용 시각 갱신)
+     */
+    void release(FilePath workDir, String key, TaskListener listener) {
+        try {
+            workDir.act(new Release(this, key));
+        } catch (IOException | InterruptedException e) {
+            listener.getLogger().println("▶ WARNING: [" + name + "] 환경 반납 실패: " + e.getMessage());
+        }
+    }
+
+    private static final class Release extends MasterToSlaveFileCallable<Void> {
+        private static final long serialVersionUID = 1L;
+        private final EnvironmentPool pool;
+        private final String key;
+
+        Release(EnvironmentPool pool, String key) {
+            this.pool = pool;
+            this.key = key;
+        }
+
+        @Override
+        public Void invoke(File workDir, VirtualChannel channel) throws IOException {
+            pool.releaseLocal(key);
+            return null;
+        }
+    }
+
+    private static final class Acquire extends MasterToSlaveFileCallable<String> {
+        private static final long serialVersionUID = 1L;
+        private final EnvironmentPool pool;
+        private final String key;
+        private final String buildCommand;
+        private final String expect;
+        private final TaskListener listener;
+
+        Acquire(EnvironmentPool pool, String key, String buildCommand, String expect, TaskListener listener) {
+            this.pool = pool;
+            this.key = key;
+            this.buildCommand = buildCommand;
+            this.expect = expect;
+            this.listener = listener;
+        }
+
+        @Override
+        public String invoke(File workDir, VirtualChannel channel) throws IOException, InterruptedException {
+            return pool.acquireLocal(key, dir -> {
+                int exit = runLocal(workDir, dir, buildCommand, listener);
+                if (exit != 0 || !new File(dir, expect).exists()) {
+                    throw new IOException("환경 생성 실패 (exit=" + exit + ")");
+                }
+            }, listener).getAbsolutePath();
+        }
+    }
+
+    /**
+     * 노드에서 직접 명령을 실행 (중단 시 프로세스 트리 종료)
+     */
+    private static int runLocal(File cwd, File poolDir, String command, TaskListener listener)
+            throws IOException, InterruptedException {
+        ProcessBuilder pb = new ProcessBuilder("bash", "-c", command)
+                .directory(cwd)
+                .redirectErrorStream(true);
+        pb.environment().put("MST_POOL_DIR", poolDir.getAbsolutePath());
+        Process proc = pb.start();
+        Thread pump = new Thread(() -> {
+            try (BufferedReader br = new BufferedReader(new InputStreamReader(proc.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = br.readLine()) != null) {
+                    listener.getLogger().println(line);
+                }
+            } catch (IOException e) {
+                // 프로세스 종료로 스트림이 닫힘
+            }
+        }, "runMST pool build output");
+        pump.setDaemon(true);
+        pump.start();
+        try {
+            int exit = proc.waitFor();
+            pump.join();
+            return exit;
+        } catch (InterruptedException e) {
+            proc.descendants().forEach(ProcessHandle::destroyForcibly);
+            proc.destroyForcibly();
+            throw e;
+        }
+    }
+
+    private File acquireLocal(String key, Builder builder, TaskListener listener) throws IOException, InterruptedException {
+        File root = CacheSupport.root(name);
+        File dir = new File(root, key);
+        File ready = new File(dir, READY);
+        File lockFile = new File(root, key + LOCK_SUFFIX);
+        synchronized (JVM_LOCKS.computeIfAbsent(dir.getAbsolutePath(), k -> new Object())) {
+            Lease lease = LEASES.get(dir.getAbsolutePath());
+            if (lease != null) {
+                // 이 JVM 의 다른 빌드가 임대 중이므로 정리되지 않은 상태
+                listener.getLogger().println("▶ [" + name + "] 캐시된 환경 재사용: " + key);
+            } else {
+                lease = lease(lockFile);
+                if (ready.exists()) {
+                    listener.getLogger().println("▶ [" + name + "] 캐시된 환경 재사용: " + key);
+                } else {
+                    // 공유 잠금을 배타 잠금으로 바꿔 생성 (그 사이 다른 프로세스가 만들었으면 재사용)
+                    lease.lock.release();
+                    lease.channel.close();
+                    try (FileChannel ch = FileChannel.open(lockFile.toPath(),
+                            StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                         FileLock lock = ch.lock()) {
+                        if (ready.exists()) {
+                            listener.getLogger().println("▶ [" + name + "] 다른 빌드가 만든 환경 재사용: " + key);
+                        } else {
+                            // 이전에 실패한 생성 잔여물 정리
+                            if (dir.exists()) FileUtils.deleteDirectory(dir);
+                            Files.createDirectories(dir.toPath());
+                            listener.getLogger().println("▶ [" + name + "] 새 환경 생성: " + key);
+                            try {
+                                builder.build(dir);
+                            } catch (IOException | InterruptedException | RuntimeException e) {
+                                FileUtils.deleteQuietly(dir);
+                                throw e;
+                            }
+                            Files.createFile(ready.toPath());
+                        }
+                    }
+                    // 방금 만든 환경은 사용 시각이 최신이라 잠금을 바꾸는 사이 정리되지 않음
+                    lease = lease(lockFile);
+                    if (!ready.exists()) {
+                        lease.lock.release();
+                        lease.channel.close();
+                        throw new IOException("환경이 생성 직후 삭제되었습니다: " + dir);
+                    }
+                }
+                LEASES.put(dir.getAbsolutePath(), lease);
+            }
+            lease.count++;
+        }
+        if (!ready.setLastModified(System.currentTimeMillis())) {
+            listener.getLogger().println("▶ WARNING: [" + name + "] 사용 시각 갱신 실패: " + ready);
+        }
+        evict(root, key, listener);
+        return dir;
+    }
+
+    /**
+     * 잠금 파일의 공유 잠금 (정리 중인 프로세스가 있으면 끝날 때까지 대기)
+     */
+    private static Lease lease(File lockFile) throws IOException {
+        FileChannel ch = FileChannel.open(lockFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new Lease(ch, ch.lock(0, Long.MAX_VALUE, true));
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    private void releaseLocal(String key) throws IOException {
+        File dir = new File(CacheSupport.root(name), key);
+        synchronized (JVM_LOCKS.computeIfAbsent(dir.getAbsolutePath(), k -> new Object())) {
+            Lease lease = LEASES.get(dir.getAbsolutePath());
+            if (lease == null) return;
+            if (--lease.count > 0) return;
+            LEASES.remove(dir.getAbsolutePath());
+            // 정리 기준이 마지막 사용 시각이므로 반납 시각으로 갱신
+            new File(dir, READY).setLastModified(System.currentTimeMillis());
+            try {
+                lease.lock.release();
+            } finally {
+                lease.channel.close();
+            }
+        }
+    }
+
+    /**
+     * 최근 사용 순으로 maxEntries 개를 넘거나 maxAge 보다 오래된 환경 삭제
+     * 생성 중이거나 임대 중(잠금 보유)인 환경은 건드리지 않습니다.
+     */
+    private void evict(File root, String keep, TaskListener listener) {
+        File[] dirs = root.listFiles(f -> f.isDirectory() && !f.getName().equals(keep));
+        if (dirs == null) return;
+        Arrays.sort(dirs, Comparator.comparingLong((File f) -> new File(f, READY).lastModified()).reversed());
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < dirs.length; i++) {
+            long lastUsed = new File(dirs[i], READY).lastModified();
+            boolean overCount = i + 1 >= maxEntries && now - lastUsed > GRACE_MILLIS;
+            boolean expired = now - lastUsed > maxAgeMillis;
+            if (!overCount && !expired) continue;
+            if (LEASES.containsKey(dirs[i].getAbsolutePath())) continue;
+            try (FileChannel ch = FileChannel.open(new File(root, dirs[i].getName() + LOCK_SUFFIX).toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = ch.tryLock()) {
+                if (lock == null) continue;
+                FileUtils.deleteDirectory(dirs[i]);
+                listener.getLogger().println("▶ [" + name + "] 오래된 환경 정리: " + dirs[i].getName());
+            } catch (OverlappingFileLockException e) {
+                // 이 JVM 에서 생성 중이거나 임대 중
+            } catch (IOException e) {
+                listener.getLogger().println("▶ WARNING: [" + name + "] 환경 정리 실패: " + e.getMessage());
+            }
+        }
+    }
+}
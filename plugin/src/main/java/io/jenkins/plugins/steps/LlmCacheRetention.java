@@ -0,0 +1,34 @@
+package io.jenkins.plugins.steps;
+
+import hudson.Extension;
+import hudson.model.AsyncPeriodicWork;
+import hudson.model.TaskListener;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LLM 응답 캐시($JENKINS_HOME/mst-llm-cache)에서 오래 재사용되지 않은 항목을 주기적으로 정리
+ *
+ * 기준 기간은 io.jenkins.plugins.steps.LlmResponseCache.maxAgeDays (기본 30일, 0 이면 정리하지 않음)
+ */
+@Extension
+public class LlmCacheRetention extends AsyncPeriodicWork {
+
+    public LlmCacheRetention() {
+        super("MCP LLM cache retention");
+    }
+
+    @Override
+    public long getRecurrencePeriod() {
+        return TimeUnit.HOURS.toMillis(6);
+    }
+
+    @Override
+    protected void execute(TaskListener listener) throws IOException, InterruptedException {
+        int removed = LlmResponseCache.prune(LlmResponseCache.dir(), LlmResponseCache.MAX_AGE_DAYS);
+        if (removed > 0) {
+            listener.getLogger().println("▶ LLM 응답 캐시 정리: " + removed + "개 삭제");
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package io.jenkins.plugins.steps;
+
+import hudson.FilePath;
+import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
+import hudson.util.DirScanner;
+import jenkins.MasterToSlaveFileCallable;
+import jenkins.model.Jenkins;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * $JENKINS_HOME/mst-llm-cache 에 모아 두는 LLM 응답 캐시
+ *
+ * 항목은 Python 러너가 만든 키(모델 설정 + 프롬프트 + 단계 문장 + 정규화한 페이지 스냅샷의 SHA-256)
+ * 이름의 JSON 파일이고 내용이 키로 정해지므로 병합은 새 파일을 더하기만 하면 됩니다.
+ * 스텝 시작 시 워크스페이스 사본과 차이 나는 항목만 맞추고, 스크립트가 끝나면 새로 받은 응답만 가져옵니다.
+ * 재사용된 항목은 수정 시각을 갱신하고, maxAgeDays 동안 쓰이지 않은 항목은 {@link LlmCacheRetention} 이 지웁니다.
+ */
+final class LlmResponseCache {
+    static final String OFF = "off";
+    static final String RECORD = "record";
+    static final String REPLAY = "replay";
+    /** 러너가 캐시를 재사용한 키를 한 줄씩 남기는 파일 (llm-cache 출력 폴더 기준) */
+    private static final String HITS = "hits.txt";
+    /** 이 기간 동안 재사용되지 않은 항목은 정리 */
+    static final int MAX_AGE_DAYS = Integer.getInteger(LlmResponseCache.class.getName() + ".maxAgeDays", 30);
+
+    private LlmResponseCache() { }
+
+    static File dir() {
+        return new File(Jenkins.get().getRootDir(), "mst-llm-cache");
+    }
+
+    /**
+     * 컨트롤러의 캐시를 워크스페이스로 동기화 (러너가 읽기 전용으로 사용)
+     * 이전 빌드에서 내려보낸 항목은 그대로 두고, 없는 항목만 복사하고 컨트롤러에서 정리된 항목은 지웁니다.
+     */
+    static FilePath stage(FilePath workspace, TaskListener listener) throws IOException, InterruptedException {
+        FilePath target = workspace.child("resources/llm-cache");
+        target.mkdirs();
+        File src = dir();
+        Set<String> local = entries(src);
+        Set<String> staged = target.act(new ListEntries());
+        Set<String> missing = new HashSet<>(local);
+        missing.removeAll(staged);
+        Set<String> stale = new HashSet<>(staged);
+        stale.removeAll(local);
+        if (!stale.isEmpty()) {
+            target.act(new DeleteEntries(stale));
+        }
+        int n = 0;
+        if (!missing.isEmpty()) {
+            n = new FilePath(src).copyRecursiveTo(
+                    new DirScanner.Filter(new MissingFilter(missing)),
+                    target, "LLM 응답 캐시");
+        }
+        listener.getLogger().println("▶ LLM 응답 캐시: " + local.size() + "개 중 " + n + "개 복사, " + stale.size()
+                + "개 삭제 (" + target.getRemote() + ")");
+        return target;
+    }
+
+    /**
+     * 실행 중 새로 기록된 응답(runDir/llm-cache)을 컨트롤러 캐시에 추가하고 재사용된 항목의 사용 시각을 갱신
+     */
+    static void collect(FilePath runDir, String label, TaskListener listener) {
+        FilePath out = runDir.child("llm-cache");
+        try {
+            if (!out.isDirectory()) return;
+            int n = out.copyRecursiveTo("*/*.json", new FilePath(dir()));
+            if (n > 0) {
+                listener.getLogger().println(label + "▶ 새 LLM 응답 " + n + "개를 캐시에 기록했습니다.");
+            }
+            FilePath hits = out.child(HITS);
+            if (hits.exists()) {
+                long now = System.currentTimeMillis();
+                for (String key : hits.readToString().split("\n")) {
+                    key = key.trim();
+                    if (key.length() < 3 || !key.matches("[0-9a-f]+")) continue;
+                    File entry = new File(new File(dir(), key.substring(0, 2)), key + ".json");
+                    if (entry.isFile() && !entry.setLastModified(now)) {
+                        listener.getLogger().println(label + "▶ WARNING: 캐시 사용 시각 갱신 실패: " + entry);
+                    }
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            listener.getLogger().println(label + "▶ WARNING: LLM 응답 캐시 기록 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 마지막 사용 시각이 maxAgeDays 보다 오래된 항목을 지우고 지운 개수를 반환
+     */
+    static int prune(File root, int maxAgeDays) throws IOException {
+        File[] buckets = root.listFiles(File::isDirectory);
+        if (buckets == null || maxAgeDays <= 0) return 0;
+        long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(maxAgeDays);
+        int removed = 0;
+        for (File bucket : buckets) {
+            File[] files = bucket.listFiles((d, name) -> name.endsWith(".json"));
+            if (files == null) continue;
+            for (File f : files) {
+                if (f.lastModified() < cutoff && Files.deleteIfExists(f.toPath())) removed++;
+            }
+            String[] left = bucket.list();
+            if (left != null && left.length == 0) Files.deleteIfExists(bucket.toPath());
+        }
+        return removed;
+    }
+
+    /**
+     * 캐시 폴더의 항목 이름 목록 (xx/&lt;key&gt;.json 형태)
+     */
+    private static Set<String> entries(File root) {
+        Set<String> out = new HashSet<>();
+        File[] buckets = root.listFiles(File::isDirectory);
+        if (buckets == null) return out;
+        for (File bucket : buckets) {
+            String[] names = bucket.list((d, name) -> name.endsWith(".json"));
+            if (names == null) continue;
+            for (String name : names) {
+                out.add(bucket.getName() + "/" + name);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * 워크스페이스 사본에 없는 항목만 통과 (버킷 폴더는 내려가도록 통과)
+     */
+    private static final class MissingFilter implements FileFilter, Serializable {
+        private static final long serialVersionUID = 1L;
+        private final Set<String> names;
+
+        MissingFilter(Set<String> names) {
+            this.names = names;
+        }
+
+        @Override
+        public boolean accept(File f) {
+            return f.isDirectory() || names.contains(f.getParentFile().getName() + "/" + f.getName());
+        }
+    }
+
+    private static final class ListEntries extends MasterToSlaveFileCallable<Set<String>> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Set<String> invoke(File dir, VirtualChannel channel) {
+            return entries(dir);
+        }
+    }
+
+    private static final class DeleteEntries extends MasterToSlaveFileCallable<Void> {
+        private static final long serialVersionUID = 1L;
+        private final Set<String> names;
+
+        DeleteEntries(Set<String> names) {
+            this.names = new HashSet<>(names);
+        }
+
+        @Override
+        public Void invoke(File dir, VirtualChannel channel) throws IOException {
+            for (String name : names) {
+                Files.deleteIfExists(new File(dir, name).toPath());
+            }
+            return null;
+        }
+    }
+}
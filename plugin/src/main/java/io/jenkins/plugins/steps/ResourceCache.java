@@ -0,0 +1,308 @@
+package io.jenkins.plugins.steps;
+
+import hudson.FilePath;
+import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
+import hudson.util.DirScanner;
+import jenkins.MasterToSlaveFileCallable;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * 플러그인에 포함된 python/typescript 리소스를 워크스페이스로 추출
+ *
+ * 플러그인 버전 + 리소스 트리의 내용 해시를 키로 하여
+ * 한 번 풀어둔 트리를 컨트롤러의 캐시 디렉터리에 보관하고,
+ * 워크스페이스에는 변경된 파일만 복사합니다.
+ * 워크스페이스의 마커에는 키와 함께 복사한 파일 목록을 남겨, 다음 실행 때 이름/크기로 트리를 확인해
+ * 지워지거나 바뀐 파일은 다시 복사하고 이전 버전에만 있던 파일은 지웁니다.
+ */
+final class ResourceCache {
+    /** 워크스페이스에 마지막으로 동기화한 캐시 키와 파일 목록을 기록하는 파일 */
+    static final String MARKER = ".mst-resources";
+    private static final String COMPLETE = ".complete";
+    /** 캐시 디렉터리별 파일 목록 (상대 경로 → 크기), 캐시 내용은 키로 고정되므로 한 번만 계산 */
+    private static final Map<File, Map<String, Long>> MANIFESTS = new ConcurrentHashMap<>();
+
+    private ResourceCache() { }
+
+    static void extract(Class<?> owner, String resourcePath, FilePath targetDir, TaskListener listener)
+            throws IOException, InterruptedException {
+        ClassLoader cl = owner.getClassLoader();
+        URL dirURL = cl.getResource(resourcePath);
+        if (dirURL == null) throw new IOException("리소스 경로를 찾을 수 없습니다: " + resourcePath);
+
+        String version = CacheSupport.pluginVersion(owner).replaceAll("[^A-Za-z0-9._-]", "_");
+        String key;
+        File cacheDir;
+        if ("file".equals(dirURL.getProtocol())) {
+            Path src;
+            try {
+                src = Paths.get(dirURL.toURI());
+            } catch (URISyntaxException e) {
+                throw new IOException("리소스 경로 URI 변환 실패", e);
+            }
+            key = version + "-" + hashTree(src);
+            cacheDir = new File(CacheSupport.root("resources"), resourcePath + "-" + key);
+            if (!new File(cacheDir, COMPLETE).exists()) {
+                populate(cacheDir, tmp -> FileUtils.copyDirectory(src.toFile(), tmp));
+                prune(cacheDir, resourcePath, listener);
+            }
+        } else if ("jar".equals(dirURL.getProtocol())) {
+            String jarPath = URLDecoder.decode(
+                    dirURL.getPath().substring(5, dirURL.getPath().indexOf("!")), "UTF-8");
+            try (JarFile jar = new JarFile(jarPath)) {
+                key = version + "-" + hashJar(jar, resourcePath);
+                cacheDir = new File(CacheSupport.root("resources"), resourcePath + "-" + key);
+                if (!new File(cacheDir, COMPLETE).exists()) {
+                    populate(cacheDir, tmp -> unpackJar(jar, resourcePath, tmp));
+                    prune(cacheDir, resourcePath, listener);
+                }
+            }
+        } else {
+            throw new IOException("지원하지 않는 프로토콜: " + dirURL.getProtocol());
+        }
+
+        Map<String, Long> manifest = MANIFESTS.computeIfAbsent(cacheDir, ResourceCache::manifest);
+        // 이전 버전에만 있던 파일을 지우고, 없거나 크기가 다른 파일 목록을 받음 (한 번의 왕복)
+        Check check = targetDir.act(new Verify(new TreeMap<>(manifest)));
+        if (check.removed > 0) {
+            listener.getLogger().println("▶ 이전 버전 리소스 " + check.removed + "개 삭제 (" + resourcePath + ")");
+        }
+
+        if (targetDir.isRemote()) {
+            if (key.equals(check.key) && check.changed.isEmpty()) {
+                listener.getLogger().println("▶ 리소스 변경 없음, 추출 생략 (" + resourcePath + ", " + key + ")");
+                return;
+            }
+            // 에이전트로는 파일 단위 왕복 대신 바뀐 파일만 한 번의 스트림으로 전송
+            int copied = new FilePath(cacheDir).copyRecursiveTo(
+                    new DirScanner.Filter(new ChangedFilter(cacheDir, check.changed)), targetDir, resourcePath);
+            listener.getLogger().println("▶ 리소스 에이전트 전송 완료 (" + resourcePath + ", " + key
+                    + "): " + copied + "개 / " + manifest.size() + "개");
+        } else {
+            int[] counts = sync(cacheDir.toPath(), new File(targetDir.getRemote()).toPath());
+            listener.getLogger().println("▶ 리소스 동기화 완료 (" + resourcePath + ", " + key
+                    + "): 복사 " + counts[0] + "개, 생략 " + counts[1] + "개");
+        }
+        targetDir.child(MARKER).write(key + "\n" + String.join("\n", new TreeMap<>(manifest).keySet()) + "\n", "UTF-8");
+    }
+
+    /**
+     * 캐시 트리의 파일 목록 (상대 경로는 '/' 구분)
+     */
+    private static Map<String, Long> manifest(File cacheDir) {
+        Map<String, Long> out = new HashMap<>();
+        Path base = cacheDir.toPath();
+        try (Stream<Path> walk = Files.walk(base)) {
+            for (Path p : (Iterable<Path>) walk.filter(Files::isRegularFile)::iterator) {
+                String rel = base.relativize(p).toString().replace(File.separatorChar, '/');
+                if (!rel.equals(COMPLETE)) out.put(rel, Files.size(p));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out;
+    }
+
+    private static final class Check implements Serializable {
+        private static final long serialVersionUID = 1L;
+        /** 마커에 기록되어 있던 키 (없으면 null) */
+        String key;
+        /** 없거나 크기가 다른 파일 */
+        final Set<String> changed = new HashSet<>();
+        int removed;
+    }
+
+    /**
+     * 워크스페이스에서 마커의 이전 파일 목록과 새 목록을 비교해 남은 파일을 지우고, 다시 복사할 파일을 찾음
+     * 마커에 없는 파일(.env, 실행 결과 등)은 건드리지 않습니다.
+     */
+    private static final class Verify extends MasterToSlaveFileCallable<Check> {
+        private static final long serialVersionUID = 1L;
+        private final TreeMap<String, Long> manifest;
+
+        Verify(TreeMap<String, Long> manifest) {
+            this.manifest = manifest;
+        }
+
+        @Override
+        public Check invoke(File dir, VirtualChannel channel) throws IOException {
+            Check c = new Check();
+            File marker = new File(dir, MARKER);
+            if (marker.isFile()) {
+                List<String> lines = Files.readAllLines(marker.toPath(), StandardCharsets.UTF_8);
+                c.key = lines.isEmpty() ? null : lines.get(0).trim();
+                for (String rel : lines.subList(Math.min(1, lines.size()), lines.size())) {
+                    if (rel.isEmpty() || manifest.containsKey(rel) || rel.contains("..")) continue;
+                    if (Files.deleteIfExists(new File(dir, rel).toPath())) c.removed++;
+                }
+            }
+            for (Map.Entry<String, Long> e : manifest.entrySet()) {
+                File f = new File(dir, e.getKey());
+                if (!f.isFile() || f.length() != e.getValue()) c.changed.add(e.getKey());
+            }
+            return c;
+        }
+    }
+
+    /**
+     * 다시 복사할 파일만 통과 (디렉터리는 내려가도록 통과)
+     */
+    private static final class ChangedFilter implements FileFilter, Serializable {
+        private static final long serialVersionUID = 1L;
+        private final String base;
+        private final Set<String> changed;
+
+        ChangedFilter(File base, Set<String> changed) {
+            this.base = base.getAbsolutePath();
+            this.changed = changed;
+        }
+
+        @Override
+        public boolean accept(File f) {
+            if (f.isDirectory()) return true;
+            String rel = f.getAbsolutePath().substring(base.length() + 1).replace(File.separatorChar, '/');
+            return changed.contains(rel);
+        }
+    }
+
+    /**
+     * 새 키의 캐시를 등록한 뒤 같은 리소스의 이전 키 캐시 삭제 (다른 빌드가 채우는 중인 임시 폴더는 제외)
+     */
+    private static void prune(File cacheDir, String resourcePath, TaskListener listener) {
+        File[] old = cacheDir.getParentFile().listFiles(f -> f.isDirectory()
+                && f.getName().startsWith(resourcePath + "-")
+                && !f.getName().contains(".tmp-")
+                && !f.equals(cacheDir));
+        if (old == null) return;
+        for (File dir : old) {
+            try {
+                FileUtils.deleteDirectory(dir);
+                MANIFESTS.remove(dir);
+                listener.getLogger().println("▶ 이전 리소스 캐시 삭제: " + dir.getName());
+            } catch (IOException e) {
+                listener.getLogger().println("▶ WARNING: 이전 리소스 캐시 삭제 실패: " + e.getMessage());
+            }
+        }
+    }
+
+    private interface Filler {
+        void fill(File dir) throws IOException;
+    }
+
+    /**
+     * 임시 디렉터리에 채운 뒤 이름을 바꿔 캐시를 원자적으로 등록
+     * 동시에 다른 빌드가 먼저 등록했다면 그쪽 결과를 사용합니다.
+     */
+    private static void populate(File cacheDir, Filler filler) throws IOException {
+        File tmp = new File(cacheDir.getParentFile(), cacheDir.getName() + ".tmp-" + UUID.randomUUID());
+        try {
+            filler.fill(tmp);
+            Files.createFile(new File(tmp, COMPLETE).toPath());
+            try {
+                Files.move(tmp.toPath(), cacheDir.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+                // 다른 빌드가 먼저 채움
+            }
+        } finally {
+            if (tmp.exists()) FileUtils.deleteDirectory(tmp);
+        }
+    }
+
+    private static void unpackJar(JarFile jar, String resourcePath, File dir) throws IOException {
+        Enumeration<JarEntry> entries = jar.entries();
+        while (entries.hasMoreElements()) {
+            JarEntry entry = entries.nextElement();
+            String name = entry.getName();
+            if (!name.startsWith(resourcePath + "/")) continue;
+            File out = new File(dir, name.substring(resourcePath.length() + 1));
+            if (entry.isDirectory()) {
+                out.mkdirs();
+            } else {
+                out.getParentFile().mkdirs();
+                try (InputStream in = jar.getInputStream(entry);
+                     OutputStream os = new FileOutputStream(out)) {
+                    IOUtils.copy(in, os);
+                }
+            }
+        }
+    }
+
+    /**
+     * JAR 엔트리는 CRC/크기가 중앙 디렉터리에 있으므로 내용을 풀지 않고 해시
+     */
+    private static String hashJar(JarFile jar, String resourcePath) {
+        MessageDigest md = CacheSupport.sha256();
+        List<JarEntry> list = new ArrayList<>();
+        Enumeration<JarEntry> entries = jar.entries();
+        while (entries.hasMoreElements()) {
+            JarEntry entry = entries.nextElement();
+            if (entry.getName().startsWith(resourcePath + "/")) list.add(entry);
+        }
+        list.sort(Comparator.comparing(JarEntry::getName));
+        for (JarEntry entry : list) {
+            md.update(entry.getName().getBytes(StandardCharsets.UTF_8));
+            md.update((entry.getCrc() + ":" + entry.getSize() + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return CacheSupport.key(md);
+    }
+
+    private static String hashTree(Path src) throws IOException {
+        MessageDigest md = CacheSupport.sha256();
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(src)) {
+            files = walk.filter(Files::isRegularFile).sorted().toList();
+        }
+        for (Path p : files) {
+            md.update(src.relativize(p).toString().getBytes(StandardCharsets.UTF_8));
+            md.update(Files.readAllBytes(p));
+        }
+        return CacheSupport.key(md);
+    }
+
+    /**
+     * 크기와 수정 시각이 캐시와 같은 파일은 건너뛰고 나머지만 복사
+     * (runner 가 package-lock.json 등을 제자리에서 다시 쓰므로 하드링크 대신 복사)
+     *
+     * @return {복사한 파일 수, 생략한 파일 수}
+     */
+    private static int[] sync(Path cacheDir, Path target) throws IOException {
+        int[] counts = new int[2];
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(cacheDir)) {
+            paths = walk.toList();
+        }
+        for (Path path : paths) {
+            Path rel = cacheDir.relativize(path);
+            if (rel.toString().equals(COMPLETE)) continue;
+            Path dest = target.resolve(rel.toString());
+            if (Files.isDirectory(path)) {
+                Files.createDirectories(dest);
+                continue;
+            }
+            if (Files.isRegularFile(dest)
+                    && Files.size(dest) == Files.size(path)
+                    && Files.getLastModifiedTime(dest).equals(Files.getLastModifiedTime(path))) {
+                counts[1]++;
+                continue;
+            }
+            Files.copy(path, dest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+            counts[0]++;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,101 @@
+package io.jenkins.plugins.steps;
+
+import hudson.model.TaskListener;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 한 번 준비된 runtime 위에서 여러 스크립트를 제한된 개수만큼 동시에 실행
+ *
+ * 스크립트는 지정된 순서대로 FIFO 큐에서 꺼내지며, 하나가 끝나면 그 완료 콜백에서
+ * 다음 스크립트를 시작하므로 스크립트를 기다리며 멈춰 있는 스레드가 없습니다.
+ * 각 스크립트의 타임아웃은 Task 가 띄운 프로세스 단위로 적용됩니다.
+ */
+final class ScriptScheduler {
+    /** 결과 맵에서 예외로 끝난 스크립트를 나타내는 종료 코드 */
+    static final int FAILED = -1;
+
+    interface Task {
+        CompletableFuture<Integer> run(File script, String label) throws IOException;
+    }
+
+    private final int concurrency;
+    private final TaskListener listener;
+    private final Deque<File> queue = new ArrayDeque<>();
+    private final Map<String, Integer> exits = new ConcurrentHashMap<>();
+    private final CompletableFuture<Map<String, Integer>> done = new CompletableFuture<>();
+    private List<File> scripts;
+    private AtomicInteger remaining;
+    private Task task;
+    private volatile boolean cancelled;
+
+    ScriptScheduler(int concurrency, TaskListener listener) {
+        this.concurrency = Math.max(1, concurrency);
+        this.listener = listener;
+    }
+
+    /**
+     * 모든 스크립트를 실행하고 스크립트 파일명 → 종료 코드 맵(입력 순서 유지)으로 완료되는 future 반환
+     */
+    CompletableFuture<Map<String, Integer>> runAll(List<File> scripts, Task task) {
+        this.scripts = scripts;
+        this.task = task;
+        this.remaining = new AtomicInteger(scripts.size());
+        queue.addAll(scripts);
+        int workers = Math.min(concurrency, scripts.size());
+        if (scripts.size() > 1) {
+            listener.getLogger().println("▶ 스크립트 " + scripts.size() + "개를 동시 " + workers + "개씩 실행");
+        }
+        for (int i = 0; i < workers; i++) {
+            startNext();
+        }
+        return done;
+    }
+
+    /**
+     * 아직 시작하지 않은 스크립트는 실행하지 않고 실패로 기록
+     */
+    void cancel() {
+        cancelled = true;
+    }
+
+    private void startNext() {
+        File script;
+        synchronized (queue) {
+            script = queue.poll();
+        }
+        if (script == null) return;
+        String label = scripts.size() > 1 ? "[" + script.getName() + "] " : "";
+
+        CompletableFuture<Integer> f;
+        if (cancelled) {
+            f = CompletableFuture.completedFuture(FAILED);
+        } else {
+            try {
+                f = task.run(script, label);
+            } catch (IOException | RuntimeException e) {
+                f = CompletableFuture.failedFuture(e);
+            }
+        }
+        f.exceptionally(t -> {
+            listener.error(label + "❌ 스크립트 실행 실패: " + t.getMessage());
+            return FAILED;
+        }).thenAccept(code -> {
+            exits.put(script.getName(), code);
+            if (remaining.decrementAndGet() == 0) {
+                Map<String, Integer> ordered = new LinkedHashMap<>();
+                for (File s : scripts) {
+                    ordered.put(s.getName(), exits.get(s.getName()));
+                }
+                done.complete(ordered);
+            } else {
+                startNext();
+            }
+        });
+    }
+}
@@ -0,0 +1,259 @@
+package io.jenkins.plugins.steps;
+
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.Proc;
+import hudson.console.LineTransformationOutputStream;
+import hudson.model.Computer;
+import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
+import io.jenkins.actions.ScriptProgress;
+import jenkins.MasterToSlaveFileCallable;
+import jenkins.util.Timer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * 빌드 노드(에이전트)에서 bash -c 로 실행한 자식 프로세스
+ *
+ * 출력은 Launcher 가 빌드 로그로 직접 스트리밍하고, 종료 여부는 공용 Timer 가
+ * 주기적으로 확인하므로 실행 중 대기하는 스레드가 없습니다.
+ * 진행 이벤트 줄(ScriptProgress.EVENT_PREFIX)은 로그에 쓰지 않고 events 로 넘깁니다.
+ */
+final class ShellProcess {
+    private static final long POLL_MILLIS = 1000;
+    /** 트리 종료 시 SIGTERM 후 강제 종료까지 기다리는 시간 (브라우저가 프로필을 정리할 시간) */
+    private static final long KILL_GRACE_MILLIS = 5000;
+
+    private final Proc proc;
+    private final FilePath dir;
+    /** 에이전트에서 bash 의 pid 를 기록해 두는 파일 (dir 기준 상대 경로) */
+    private final String pidFile;
+    private final TaskListener listener;
+    private final String label;
+    private final int timeoutMinutes;
+    private final AtomicBoolean timedOut = new AtomicBoolean();
+    /** 종료 확인이 원격 작업 풀에서 진행 중 */
+    private final AtomicBoolean checking = new AtomicBoolean();
+    private final CompletableFuture<Integer> exit = new CompletableFuture<>();
+    private ScheduledFuture<?> poll;
+    private ScheduledFuture<?> watchdog;
+
+    private ShellProcess(Proc proc, FilePath dir, String pidFile, TaskListener listener, String label,
+                         int timeoutMinutes) {
+        this.proc = proc;
+        this.dir = dir;
+        this.pidFile = pidFile;
+        this.listener = listener;
+        this.label = label;
+        this.timeoutMinutes = timeoutMinutes;
+    }
+
+    /**
+     * 프로세스를 시작하고 바로 반환
+     * timeoutMinutes 가 0 보다 크면 시간 초과 시 프로세스 트리를 강제 종료합니다.
+     */
+    static ShellProcess start(Launcher launcher, FilePath dir, String command, TaskListener listener, String label,
+                              int timeoutMinutes, Consumer<String> events) throws IOException {
+        OutputStream out = label.isEmpty() && events == null
+                ? listener.getLogger()
+                : new LabelOutputStream(listener.getLogger(), label, events);
+        // 중단 시 에이전트에서 자손 프로세스를 직접 찾을 수 있도록 bash 의 pid 를 남김
+        String pidFile = ".mst-pid-" + UUID.randomUUID();
+        String wrapped = "echo $$ > '" + pidFile + "'; trap \"rm -f '" + pidFile + "'\" EXIT; " + command;
+        Proc proc = launcher.launch()
+                .cmds("bash", "-c", wrapped)
+                .pwd(dir)
+                .stdout(out)
+                .quiet(true)
+                .start();
+        ShellProcess sp = new ShellProcess(proc, dir, pidFile, listener, label, timeoutMinutes);
+        synchronized (sp) {
+            sp.poll = Timer.get().scheduleWithFixedDelay(sp::tick, POLL_MILLIS, POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (timeoutMinutes > 0) {
+                // 트리 종료는 에이전트 통신과 유예 대기가 있으므로 공용 타이머가 아닌 원격 작업 풀에서 수행
+                sp.watchdog = Timer.get().schedule(() -> {
+                    sp.timedOut.set(true);
+                    Computer.threadPoolForRemoting.submit(sp::destroy);
+                }, timeoutMinutes, TimeUnit.MINUTES);
+            }
+        }
+        return sp;
+    }
+
+    /**
+     * 프로세스 종료 코드로 완료되는 future
+     */
+    CompletableFuture<Integer> exit() {
+        return exit;
+    }
+
+    /**
+     * 프로세스와 그 자손을 종료
+     * bash 가 살아 있는 동안 에이전트에서 ProcessHandle 로 자손 트리(python/node → 브라우저)를 먼저 정리하고,
+     * 남은 것은 Launcher 의 프로세스 트리 종료(환경 변수 쿠키 기준)에 맡깁니다.
+     */
+    void destroy() {
+        try {
+            int killed = dir.act(new KillTree(pidFile));
+            if (killed > 0) {
+                listener.getLogger().println(label + "▶ 프로세스 " + killed + "개를 종료했습니다.");
+            }
+        } catch (IOException | InterruptedException e) {
+            listener.getLogger().println(label + "▶ WARNING: 프로세스 트리 종료 실패: " + e.getMessage());
+        }
+        try {
+            proc.kill();
+        } catch (IOException | InterruptedException e) {
+            listener.getLogger().println(label + "▶ WARNING: 프로세스 종료 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 에이전트에서 pid 파일의 bash 와 그 자손 전체를 종료하고 종료한 프로세스 수를 반환
+     * 자식부터 SIGTERM 을 보내고, 유예 시간 뒤에도 남은 프로세스는 강제 종료합니다.
+     */
+    private static final class KillTree extends MasterToSlaveFileCallable<Integer> {
+        private static final long serialVersionUID = 1L;
+        private final String pidFile;
+
+        KillTree(String pidFile) {
+            this.pidFile = pidFile;
+        }
+
+        @Override
+        public Integer invoke(File dir, VirtualChannel channel) throws IOException, InterruptedException {
+            File f = new File(dir, pidFile);
+            if (!f.isFile()) return 0;
+            long pid;
+            try {
+                pid = Long.parseLong(Files.readString(f.toPath(), StandardCharsets.UTF_8).trim());
+            } catch (NumberFormatException e) {
+                return 0;
+            } finally {
+                Files.deleteIfExists(f.toPath());
+            }
+            Optional<ProcessHandle> root = ProcessHandle.of(pid);
+            // pid 가 다른 프로세스에 재사용된 경우는 건드리지 않음
+            if (root.isEmpty() || !root.get().info().command().map(c -> c.endsWith("bash")).orElse(true)) {
+                return 0;
+            }
+            List<ProcessHandle> tree = new ArrayList<>();
+            root.get().descendants().forEach(tree::add);
+            tree.add(root.get());
+            for (ProcessHandle ph : tree) {
+                ph.destroy();
+            }
+            long deadline = System.currentTimeMillis() + KILL_GRACE_MILLIS;
+            for (ProcessHandle ph : tree) {
+                long left = deadline - System.currentTimeMillis();
+                if (left <= 0) break;
+                try {
+                    ph.onExit().get(left, TimeUnit.MILLISECONDS);
+                } catch (ExecutionException | TimeoutException e) {
+                    break;
+                }
+            }
+            for (ProcessHandle ph : tree) {
+                if (ph.isAlive()) ph.destroyForcibly();
+            }
+            return tree.size();
+        }
+    }
+
+    /**
+     * 타이머에서는 확인 작업만 넘기고, 원격 호출(isAlive/join)은 원격 작업 풀에서 수행
+     * 이전 확인이 아직 끝나지 않았으면 이번 주기는 건너뜁니다.
+     */
+    private void tick() {
+        if (!checking.compareAndSet(false, true)) return;
+        Computer.threadPoolForRemoting.submit(() -> {
+            try {
+                poll();
+            } finally {
+                checking.set(false);
+            }
+        });
+    }
+
+    private void poll() {
+        try {
+            if (proc.isAlive()) return;
+        } catch (IOException | InterruptedException e) {
+            // 에이전트 연결이 끊긴 경우도 종료로 처리
+        }
+        finish();
+    }
+
+    private synchronized void finish() {
+        if (exit.isDone()) return;
+        if (poll != null) poll.cancel(false);
+        if (watchdog != null) watchdog.cancel(false);
+        try {
+            // 이미 종료되었으므로 남은 출력 전송만 기다림
+            int code = proc.join();
+            if (timedOut.get()) {
+                listener.error(label + "❌ 시간 초과로 종료되었습니다 (" + timeoutMinutes + "분)");
+            }
+            exit.complete(code);
+        } catch (IOException | InterruptedException e) {
+            exit.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * 여러 스크립트를 동시에 실행할 때 각 출력 줄 앞에 스크립트 이름을 붙임
+     * 진행 이벤트 줄은 접두어를 떼고 events 로 넘김
+     */
+    private static final class LabelOutputStream extends LineTransformationOutputStream {
+        private static final byte[] EVENT = ScriptProgress.EVENT_PREFIX.getBytes(StandardCharsets.UTF_8);
+
+        private final OutputStream out;
+        private final byte[] label;
+        private final Consumer<String> events;
+
+        LabelOutputStream(OutputStream out, String label, Consumer<String> events) {
+            this.out = out;
+            this.label = label.getBytes(StandardCharsets.UTF_8);
+            this.events = events;
+        }
+
+        @Override
+        protected void eol(byte[] b, int len) throws IOException {
+            if (events != null && startsWith(b, len, EVENT)) {
+                events.accept(trimEOL(new String(b, EVENT.length, len - EVENT.length, StandardCharsets.UTF_8)));
+                return;
+            }
+            out.write(label);
+            out.write(b, 0, len);
+        }
+
+        private static boolean startsWith(byte[] b, int len, byte[] prefix) {
+            if (len < prefix.length) return false;
+            for (int i = 0; i < prefix.length; i++) {
+                if (b[i] != prefix[i]) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
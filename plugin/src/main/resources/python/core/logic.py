@@ -1,6 +1,5 @@
 import asyncio
 import json
-import base64
 import os
 import shutil
 from typing import List, Tuple
@@ -8,6 +7,7 @@ from langchain_core.messages import ToolMessage, AIMessage
 from utils.io_utils import extract_json_from_message
 from model.schema import WebTestResult
 from utils.prompt import prompt, output_parser, get_language_name
+from utils.metrics import StepMetricsCollector
 
 
 def create_instruction(steps: List[str]) -> str:
@@ -21,9 +21,11 @@ def run_logic(
 
 
 async def _run_logic(
-    agent, steps: List[str], screenshot_dir: str, language: str = "en"
-) -> Tuple[WebTestResult, List[str]]:
+    agent, steps: List[str], screenshot_dir: str, language: str = "en", index: int = 0
+) -> Tuple[WebTestResult, List[str], List[dict]]:
     language_name = get_language_name(language)
+    # 도구가 돌려준 이미지는 실행 중에 바로 저장 (진행 페이지에서 보이도록)
+    collector = StepMetricsCollector(index, screenshot_dir)
     response = await agent.ainvoke(
         {
             "messages": [
@@ -31,23 +33,14 @@ async def _run_logic(
                 {"role": "user", "content": create_instruction(steps)},
             ]
         },
-        config={"recursion_limit": 100},
+        config={"recursion_limit": 100, "callbacks": [collector]},
     )
 
-    saved = []
-    count = 1
+    saved = list(collector.screenshots)
+    count = len(saved) + 1
     for ev in response["messages"]:
         if isinstance(ev, ToolMessage):
-            # artifact-based
-            if getattr(ev, "artifact", None):
-                for art in ev.artifact:
-                    if getattr(art, "type", "") == "image" and hasattr(art, "data"):
-                        fname = f"{count}.png"
-                        out = os.path.join(screenshot_dir, fname)
-                        with open(out, "wb") as imgf:
-                            imgf.write(base64.b64decode(art.data))
-                        saved.append(fname)
-                        count += 1
+            # artifact 이미지는 collector 가 저장함
             # legacy [screenshot_path]
             if isinstance(ev.content, str):
                 try:
@@ -67,4 +60,4 @@ async def _run_logic(
     last = response["messages"][-1]
     json_text = extract_json_from_message(last)
     result = output_parser.parse(json_text)
-    return result, saved
+    return result, saved, collector.steps
@@ -1,5 +1,9 @@
+import asyncio
+import contextlib
 import os
 import logging
+import shutil
+import tempfile
 from datetime import datetime
 from typing import List, Tuple
 from langchain_openai import ChatOpenAI
@@ -9,8 +13,11 @@ from langchain_mcp_adapters.tools import load_mcp_tools
 from core.scenario import _run_scenario
 from model.schema import WebTestResult
 from mcp import ClientSession
-from mcp_client.client import create_mcp_session
+from mcp_client.client import create_mcp_session, create_pool_session
+from mcp_client import pool
 from report.html_report import generate_combined_html_report
+from utils.llm_cache import StepCache
+from utils import progress
 
 logger = logging.getLogger("web_test")
 
@@ -23,22 +30,39 @@ async def run_test(
     llm_model: str,
     api_key: str,
     language: str = "en",
+    parallelism: int = 1,
+    run_id: str = "",
+    mcp_pool: int = 0,
+    mcp_pool_max_age: int = 3600,
+    llm_cache: str = "off",
+    llm_cache_dir: str = "",
+    llm_cache_out: str = "",
+    scenario_timeout: float = 0,
 ):
     test_start = datetime.now()
     timestamp = test_start.strftime("%Y%m%d-%H%M%S")
-    test_id = f"{timestamp}_report_{build_num}"
+    # 빌드 번호는 항상 마지막 '_' 뒤에 둠 (GlobalReportAction 이 그렇게 파싱)
+    prefix = f"{timestamp}-{run_id}" if run_id else timestamp
+    test_id = f"{prefix}_report_{build_num}"
     output_dir = os.path.join(base_dir, test_id)
     os.makedirs(output_dir, exist_ok=True)
 
     logger.info(f"Test ID: {test_id}")
+    progress.emit("run_start", build=test_id, scenarios=len(scenarios))
     logger.info(f"Output directory: {output_dir}")
 
+    # 같은 대화(프롬프트, 단계, 페이지 스냅샷)에 대한 응답 재사용
+    cache = None
+    if llm_cache != "off" and llm_cache_out:
+        cache = StepCache(llm_cache_dir or None, llm_cache_out, llm_cache)
+        logger.info(f"LLM response cache: {llm_cache} ({llm_cache_dir or '-'} -> {llm_cache_out})")
+
     # Model selection
     try:
         if provider == "anthropic":
-            model = ChatAnthropic(model=llm_model, temperature=0, api_key=api_key)
+            model = ChatAnthropic(model=llm_model, temperature=0, api_key=api_key, cache=cache)
         elif provider == "openai":
-            model = ChatOpenAI(model=llm_model, temperature=0, api_key=api_key)
+            model = ChatOpenAI(model=llm_model, temperature=0, api_key=api_key, cache=cache)
         else:
             raise ValueError(f"Unsupported provider: {provider}")
         logger.info(f"LLM model initialized: {provider}/{llm_model}")
@@ -47,31 +71,69 @@ async def run_test(
         raise
 
     results: List[Tuple[int, WebTestResult, List[str]]] = []
-    try:
-        async with await create_mcp_session() as (read, write):
+    # 병렬 실행 시 워커별 브라우저 프로필은 결과 디렉터리 밖 임시 위치에 생성
+    profiles_dir = tempfile.mkdtemp(prefix="mst-profiles-") if parallelism > 1 else None
+    if mcp_pool > 0:
+        mcp_dir = os.path.join(os.path.dirname(os.path.abspath(__file__)), "..", "mcp")
+        pool.ensure_pool(mcp_dir, mcp_pool, mcp_pool_max_age)
+    queue: asyncio.Queue = asyncio.Queue()
+    for idx, scenario in enumerate(scenarios, start=1):
+        queue.put_nowait((idx, scenario))
+
+    async def worker(worker_id: int):
+        # 워커마다 별도의 MCP 서버(브라우저) 프로세스와 프로필을 사용
+        user_data_dir = (
+            os.path.join(profiles_dir, f"worker-{worker_id}") if profiles_dir else None
+        )
+        async with contextlib.AsyncExitStack() as stack:
+            url = await stack.enter_async_context(pool.lease()) if mcp_pool > 0 else None
+            if url:
+                # 풀의 서버를 빌려 쓰면 node 기동 시간을 건너뜀
+                client = await create_pool_session(url)
+            else:
+                client = await create_mcp_session(user_data_dir)
+            read, write = await stack.enter_async_context(client)
             async with ClientSession(read, write) as session:
-                logger.info("Initializing MCP session...")
+                logger.info(f"[worker {worker_id}] Initializing MCP session...")
                 await session.initialize()
                 tools = await load_mcp_tools(session)
-                logger.info("MCP tools loaded successfully")
+                logger.info(f"[worker {worker_id}] MCP tools loaded successfully")
 
-                for idx, scenario in enumerate(scenarios, start=1):
+                while True:
+                    try:
+                        idx, scenario = queue.get_nowait()
+                    except asyncio.QueueEmpty:
+                        return
                     logger.info(
-                        f"Executing scenario {idx}/{len(scenarios)}: {scenario.get('title', '')}"
+                        f"[worker {worker_id}] Executing scenario {idx}/{len(scenarios)}: {scenario.get('title', '')}"
                     )
                     agent = create_react_agent(model, tools)
                     result = await _run_scenario(
-                        agent, scenario, idx, output_dir, language
+                        agent, scenario, idx, output_dir, language, scenario_timeout or None
                     )
                     results.append(result)
                     logger.info(f"Scenario {idx} completed")
 
+    workers = max(1, min(parallelism, len(scenarios)))
+    logger.info(f"Running {len(scenarios)} scenarios with {workers} worker(s)")
+    try:
+        await asyncio.gather(*(worker(i) for i in range(1, workers + 1)))
     except Exception as e:
         logger.error(f"Error during MCP session execution: {str(e)}")
         raise
+    finally:
+        if profiles_dir:
+            shutil.rmtree(profiles_dir, ignore_errors=True)
+
+    if cache:
+        logger.info(f"LLM cache: {cache.hits} hit(s), {cache.misses} miss(es)")
+
+    # 워커 완료 순서와 관계없이 시나리오 순서대로 리포트 생성
+    results.sort(key=lambda r: r[0])
 
     # Generate HTML report
     duration_ms = (datetime.now() - test_start).total_seconds() * 1000
     logger.info(f"Generating HTML report... (Duration: {duration_ms:.2f}ms)")
     generate_combined_html_report(results, output_dir, test_start, duration_ms, test_id)
     logger.info(f"Test completed: {output_dir}/report.html")
+    progress.emit("run_end", build=test_id)
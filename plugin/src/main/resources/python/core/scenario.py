@@ -1,22 +1,34 @@
+import asyncio
 import os
 import time
 import logging
-from typing import Tuple, List
-from model.schema import WebTestResult
+from typing import Tuple, List, Optional
+from model.schema import FailedStep, WebTestResult
 from core.logic import _run_logic
 from utils.io_utils import save_result
+from utils import progress
 
 logger = logging.getLogger("web_test")
 
 
 def run_scenario(
-    agent, scenario: dict, index: int, output_dir: str, language: str = "en"
+    agent,
+    scenario: dict,
+    index: int,
+    output_dir: str,
+    language: str = "en",
+    timeout: Optional[float] = None,
 ):
-    return _run_scenario(agent, scenario, index, output_dir, language)
+    return _run_scenario(agent, scenario, index, output_dir, language, timeout)
 
 
 async def _run_scenario(
-    agent, scenario: dict, index: int, output_dir: str, language: str = "en"
+    agent,
+    scenario: dict,
+    index: int,
+    output_dir: str,
+    language: str = "en",
+    timeout: Optional[float] = None,
 ) -> Tuple[int, WebTestResult, List[str]]:
     scenario_start = time.perf_counter()
     scenario_dir = os.path.join(output_dir, f"{index}")
@@ -24,18 +36,56 @@ async def _run_scenario(
     os.makedirs(screenshot_dir, exist_ok=True)
 
     logger.info(f"Starting scenario: '{scenario.get('title', '')}'")
+    progress.emit(
+        "scenario_start",
+        scenario=index,
+        title=scenario.get("title", ""),
+        steps=len(scenario.get("steps", [])),
+    )
 
     try:
-        result, screenshots = await _run_logic(
-            agent, scenario.get("steps", []), screenshot_dir, language
-        )
+        try:
+            # 시간 초과 시 에이전트 실행을 취소하고 실패로 기록한 뒤 다음 시나리오로 진행
+            result, screenshots, metrics = await asyncio.wait_for(
+                _run_logic(agent, scenario.get("steps", []), screenshot_dir, language, index),
+                timeout,
+            )
+        except asyncio.TimeoutError:
+            logger.error(f"Scenario timed out after {timeout:.0f} seconds")
+            result = WebTestResult(
+                title="",
+                status=False,
+                duration=0,
+                feedback=f"Scenario timed out after {timeout:.0f} seconds",
+                fail=[FailedStep(num=0, message=f"Timed out after {timeout:.0f} seconds")],
+                steps=[],
+            )
+            screenshots = sorted(
+                (f for f in os.listdir(screenshot_dir) if f.endswith(".png")),
+                key=lambda f: int(f.split(".")[0]) if f.split(".")[0].isdigit() else 0,
+            )
+            metrics = []
 
         result.duration = time.perf_counter() - scenario_start
         result.title = scenario.get("title", "")
 
-        save_result(scenario, result, screenshots, scenario_dir)
+        save_result(scenario, result, screenshots, scenario_dir, metrics)
         logger.info(f"Scenario completed (Duration: {result.duration:.2f} seconds)")
+        progress.emit(
+            "scenario_end",
+            scenario=index,
+            status=result.status,
+            duration=round(result.duration, 2),
+            feedback=result.feedback,
+        )
         return index, result, screenshots
     except Exception as e:
         logger.error(f"Error during scenario execution: {str(e)}")
+        progress.emit(
+            "scenario_end",
+            scenario=index,
+            status=False,
+            duration=round(time.perf_counter() - scenario_start, 2),
+            feedback=str(e),
+        )
         raise
@@ -21,6 +21,49 @@ if __name__ == "__main__":
         default="en",
         help="Language for LLM responses (e.g., 'en', 'ko', 'ja', 'zh', etc.)",
     )
+    parser.add_argument(
+        "--parallelism",
+        type=int,
+        default=1,
+        help="Number of scenarios to run concurrently (one MCP browser per worker)",
+    )
+    parser.add_argument(
+        "--run_id",
+        type=str,
+        default="",
+        help="Suffix that keeps output folders of scripts sharing a build apart",
+    )
+    parser.add_argument(
+        "--mcp_pool",
+        type=int,
+        default=0,
+        help="Number of warm MCP servers kept on this agent between builds (0 = off)",
+    )
+    parser.add_argument(
+        "--mcp_pool_max_age",
+        type=int,
+        default=3600,
+        help="Seconds after which an idle pooled MCP server is restarted",
+    )
+    parser.add_argument(
+        "--llm_cache",
+        type=str,
+        default="off",
+        choices=["off", "record", "replay"],
+        help="Reuse recorded LLM responses for unchanged steps (replay) or only record them",
+    )
+    parser.add_argument(
+        "--llm_cache_dir", type=str, default="", help="Directory of recorded LLM responses"
+    )
+    parser.add_argument(
+        "--llm_cache_out", type=str, default="", help="Directory for newly recorded LLM responses"
+    )
+    parser.add_argument(
+        "--scenario_timeout",
+        type=float,
+        default=0,
+        help="Seconds after which a scenario is cancelled and recorded as failed (0 = no limit)",
+    )
     args = parser.parse_args()
 
     # Setup logger
@@ -55,6 +98,14 @@ if __name__ == "__main__":
                 model_key,
                 api_k,
                 args.language,
+                args.parallelism,
+                args.run_id,
+                args.mcp_pool,
+                args.mcp_pool_max_age,
+                args.llm_cache,
+                args.llm_cache_dir,
+                args.llm_cache_out,
+                args.scenario_timeout,
             )
         )
 
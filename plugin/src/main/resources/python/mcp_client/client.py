@@ -1,15 +1,26 @@
 import os
+from typing import Optional
+from mcp.client.sse import sse_client
 from mcp.client.stdio import stdio_client
 from mcp import ClientSession, StdioServerParameters
 
 
-def get_stdio_params():
+def get_stdio_params(user_data_dir: Optional[str] = None):
     cur = os.path.dirname(os.path.abspath(__file__))
     mcp_path = os.path.join(cur, "..", "mcp")
-    return StdioServerParameters(command="node", args=["cli.js"], cwd=mcp_path)
+    args = ["cli.js"]
+    if user_data_dir:
+        # 병렬 워커끼리 브라우저 프로필이 충돌하지 않도록 분리
+        args += ["--user-data-dir", os.path.abspath(user_data_dir)]
+    return StdioServerParameters(command="node", args=args, cwd=mcp_path)
 
 
-async def create_mcp_session():
-    params = get_stdio_params()
+async def create_mcp_session(user_data_dir: Optional[str] = None):
+    params = get_stdio_params(user_data_dir)
     client = stdio_client(params)
     return client
+
+
+async def create_pool_session(url: str):
+    # 풀에 미리 떠 있는 MCP 서버에 SSE 로 연결
+    return sse_client(url)
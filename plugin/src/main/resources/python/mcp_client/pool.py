@@ -0,0 +1,317 @@
+"""
+에이전트에 상주하는 Playwright MCP 서버(SSE) 풀
+
+- 풀 디렉터리(기본 ~/.mst-cache/mcp-pool)에 슬롯별 상태 파일(slot-N.json)과 잠금 파일(slot-N.lock)을 둡니다.
+- 관리 프로세스(serve)가 슬롯마다 `node cli.js --port P --user-data-dir D` 를 띄워 두고,
+  주기적으로 상태를 확인해 죽은 서버는 다시 띄우고 max_age 가 지난 유휴 서버는 교체합니다.
+- 러너는 lease() 로 잠금을 잡은 슬롯의 SSE 주소를 받아 쓰고, 반납할 때 프로필을 비워
+  다음 사용자와 쿠키/스토리지가 섞이지 않게 합니다. 잠금은 프로세스가 죽으면 자동으로 풀립니다.
+- 일정 시간 임대가 없으면 관리 프로세스는 서버를 모두 내리고 종료합니다.
+- 관리 프로세스는 살아 있는 동안 manager.lock 을 잡고 있어, 에이전트에 하나만 실행됩니다.
+"""
+import argparse
+import asyncio
+import contextlib
+import fcntl
+import glob
+import json
+import logging
+import os
+import shlex
+import shutil
+import signal
+import socket
+import subprocess
+import sys
+import time
+from typing import Optional
+
+logger = logging.getLogger("web_test")
+
+DEFAULT_DIR = os.path.join(
+    os.environ.get("MST_CACHE_DIR", os.path.join(os.path.expanduser("~"), ".mst-cache")),
+    "mcp-pool",
+)
+BASE_PORT = 18930
+CHECK_INTERVAL = 10
+IDLE_TIMEOUT = 30 * 60
+
+
+def _slot_paths(pool_dir: str, slot: int):
+    return (
+        os.path.join(pool_dir, f"slot-{slot}.json"),
+        os.path.join(pool_dir, f"slot-{slot}.lock"),
+        os.path.join(pool_dir, f"profile-{slot}"),
+    )
+
+
+def _port_open(port: int) -> bool:
+    try:
+        with socket.create_connection(("127.0.0.1", port), timeout=1):
+            return True
+    except OSError:
+        return False
+
+
+def _pid_alive(pid: int) -> bool:
+    try:
+        os.kill(pid, 0)
+        return True
+    except OSError:
+        return False
+
+
+def _read_state(path: str) -> Optional[dict]:
+    try:
+        with open(path, "r", encoding="utf-8") as f:
+            return json.load(f)
+    except (OSError, ValueError):
+        return None
+
+
+def _healthy(state: Optional[dict]) -> bool:
+    return bool(state) and _pid_alive(state["pid"]) and _port_open(state["port"])
+
+
+def _try_lock(lock_path: str):
+    fd = os.open(lock_path, os.O_CREAT | os.O_RDWR, 0o644)
+    try:
+        fcntl.flock(fd, fcntl.LOCK_EX | fcntl.LOCK_NB)
+        return fd
+    except OSError:
+        os.close(fd)
+        return None
+
+
+def _unlock(fd: int):
+    fcntl.flock(fd, fcntl.LOCK_UN)
+    os.close(fd)
+
+
+def _reset_profile(profile_dir: str):
+    shutil.rmtree(profile_dir, ignore_errors=True)
+    os.makedirs(profile_dir, exist_ok=True)
+
+
+# ---------------------------------------------------------------- 러너 쪽
+
+
+def ensure_pool(mcp_dir: str, size: int, max_age: int, pool_dir: str = DEFAULT_DIR):
+    """관리 프로세스가 없으면 빌드와 분리된 프로세스로 띄움 (있으면 설정만 갱신)"""
+    os.makedirs(pool_dir, exist_ok=True)
+    # 동시에 시작한 러너들이 관리 프로세스를 여러 개 띄우지 않도록 확인~실행 구간을 직렬화
+    fd = os.open(os.path.join(pool_dir, "ensure.lock"), os.O_CREAT | os.O_RDWR, 0o644)
+    try:
+        fcntl.flock(fd, fcntl.LOCK_EX)
+        config_path = os.path.join(pool_dir, "config.json")
+        tmp = f"{config_path}.{os.getpid()}.tmp"
+        with open(tmp, "w", encoding="utf-8") as f:
+            json.dump({"mcp_dir": os.path.abspath(mcp_dir), "size": size, "max_age": max_age}, f)
+        os.replace(tmp, config_path)
+        _spawn_manager(pool_dir, size)
+    finally:
+        _unlock(fd)
+
+
+def _spawn_manager(pool_dir: str, size: int):
+    manager_lock = os.path.join(pool_dir, "manager.lock")
+    probe = _try_lock(manager_lock)
+    if probe is None:
+        # 관리 프로세스가 잠금을 잡고 실행 중
+        return
+    _unlock(probe)
+    env = dict(os.environ)
+    # Jenkins 는 빌드가 끝나면 같은 쿠키를 가진 프로세스를 정리하므로 풀은 빌드와 분리
+    env["JENKINS_NODE_COOKIE"] = "dontKillMe"
+    env["BUILD_ID"] = "dontKillMe"
+    # 중단 시 runMST 가 러너의 자손 프로세스를 모두 종료하므로, 중간 셸을 거쳐 러너의 자손에서 벗어남
+    cmd = "{} {} serve --dir {} >> {} 2>&1 < /dev/null & echo $!".format(
+        shlex.quote(sys.executable),
+        shlex.quote(os.path.abspath(__file__)),
+        shlex.quote(pool_dir),
+        shlex.quote(os.path.join(pool_dir, "manager.log")),
+    )
+    out = subprocess.run(
+        ["sh", "-c", cmd], env=env, capture_output=True, text=True, start_new_session=True, check=True
+    )
+    pid = int(out.stdout.strip())
+    with open(os.path.join(pool_dir, "manager.json"), "w", encoding="utf-8") as f:
+        json.dump({"pid": pid}, f)
+    # 다음 러너가 잠금으로 실행 여부를 판단할 수 있도록 관리 프로세스가 잠금을 잡을 때까지 대기
+    for _ in range(50):
+        probe = _try_lock(manager_lock)
+        if probe is None:
+            break
+        _unlock(probe)
+        if not _pid_alive(pid):
+            break
+        time.sleep(0.1)
+    logger.info(f"MCP pool manager started (pid={pid}, size={size})")
+
+
+@contextlib.asynccontextmanager
+async def lease(pool_dir: str = DEFAULT_DIR, wait: float = 30.0):
+    """
+    준비된 서버 하나를 임대해 SSE 주소를 넘겨줌 (빈 슬롯이 없으면 None)
+    반납 시 브라우저 프로필을 비움
+    """
+    config = _read_state(os.path.join(pool_dir, "config.json")) or {}
+    size = int(config.get("size", 0))
+    deadline = time.monotonic() + wait
+    while True:
+        for slot in range(size):
+            state_path, lock_path, profile_dir = _slot_paths(pool_dir, slot)
+            fd = _try_lock(lock_path)
+            if fd is None:
+                continue
+            state = _read_state(state_path)
+            if not _healthy(state):
+                _unlock(fd)
+                continue
+            os.utime(lock_path)
+            logger.info(f"Leased warm MCP server (slot={slot}, port={state['port']})")
+            try:
+                yield f"http://127.0.0.1:{state['port']}/sse"
+            finally:
+                # 다음 임대자와 상태가 섞이지 않도록 프로필 초기화 (세션 종료로 브라우저는 이미 닫힘)
+                _reset_profile(profile_dir)
+                os.utime(lock_path)
+                _unlock(fd)
+            return
+        if time.monotonic() >= deadline:
+            break
+        # 관리 프로세스가 막 시작되어 서버가 아직 뜨는 중일 수 있음
+        await asyncio.sleep(1)
+    logger.info("No warm MCP server available, starting a dedicated one")
+    yield None
+
+
+# ---------------------------------------------------------------- 관리 프로세스
+
+
+def _start_server(mcp_dir: str, slot: int, pool_dir: str) -> dict:
+    state_path, _, profile_dir = _slot_paths(pool_dir, slot)
+    _reset_profile(profile_dir)
+    port = BASE_PORT + slot
+    proc = subprocess.Popen(
+        ["node", "cli.js", "--port", str(port), "--user-data-dir", profile_dir],
+        cwd=mcp_dir,
+        stdout=subprocess.DEVNULL,
+        stderr=subprocess.DEVNULL,
+        stdin=subprocess.PIPE,  # stdin 이 닫히면 cli.js 가 종료되므로 열어 둠
+    )
+    for _ in range(50):
+        if _port_open(port) or proc.poll() is not None:
+            break
+        time.sleep(0.2)
+    state = {"pid": proc.pid, "port": port, "started": time.time(), "mcp_dir": mcp_dir}
+    with open(state_path, "w", encoding="utf-8") as f:
+        json.dump(state, f)
+    print(f"slot {slot}: started pid={proc.pid} port={port}", flush=True)
+    return {"proc": proc, **state}
+
+
+def _stop_server(server: dict):
+    proc = server["proc"]
+    if proc.poll() is None:
+        proc.send_signal(signal.SIGTERM)
+        try:
+            proc.wait(timeout=20)
+        except subprocess.TimeoutExpired:
+            proc.kill()
+
+
+def _any_leased(pool_dir: str, size: int) -> bool:
+    for slot in range(size):
+        _, lock_path, _ = _slot_paths(pool_dir, slot)
+        fd = _try_lock(lock_path)
+        if fd is None:
+            return True
+        _unlock(fd)
+    return False
+
+
+def serve(pool_dir: str):
+    manager_fd = None
+    # 실행 직후 러너가 잠금 상태를 확인하느라 잠깐 잡고 있을 수 있으므로 몇 번 재시도
+    for _ in range(40):
+        manager_fd = _try_lock(os.path.join(pool_dir, "manager.lock"))
+        if manager_fd is not None:
+            break
+        time.sleep(0.05)
+    if manager_fd is None:
+        print("another manager is running, exiting", flush=True)
+        return
+    servers = {}
+    last_used = time.time()
+    try:
+        while True:
+            config = _read_state(os.path.join(pool_dir, "config.json")) or {}
+            size = int(config.get("size", 0))
+            max_age = int(config.get("max_age", 3600))
+            mcp_dir = config.get("mcp_dir")
+            now = time.time()
+
+            # 다른 빌드가 더 작은 크기로 설정을 바꿔도 임대 중인 서버는 반납될 때까지 유지
+            for slot in list(servers):
+                if slot >= size:
+                    _, lock_path, _ = _slot_paths(pool_dir, slot)
+                    fd = _try_lock(lock_path)
+                    if fd is None:
+                        continue
+                    try:
+                        _stop_server(servers.pop(slot))
+                        print(f"slot {slot}: stopped (pool shrunk to {size})", flush=True)
+                    finally:
+                        _unlock(fd)
+
+            for slot in range(size):
+                state_path, lock_path, _ = _slot_paths(pool_dir, slot)
+                if os.path.exists(lock_path):
+                    last_used = max(last_used, os.path.getmtime(lock_path))
+                server = servers.get(slot)
+                healthy = server is not None and server["proc"].poll() is None and _port_open(server["port"])
+                # 서버를 띄운 워크스페이스가 지워졌으면 새 위치로 다시 띄움
+                stale = server is not None and (
+                    now - server["started"] > max_age
+                    or not os.path.exists(os.path.join(server["mcp_dir"], "cli.js"))
+                )
+                if healthy and not stale:
+                    continue
+                # 임대 중인 서버는 건드리지 않음
+                fd = _try_lock(lock_path)
+                if fd is None:
+                    continue
+                try:
+                    if server is not None:
+                        _stop_server(server)
+                        print(f"slot {slot}: recycled ({'stale' if healthy else 'unhealthy'})", flush=True)
+                    if mcp_dir and os.path.exists(os.path.join(mcp_dir, "cli.js")):
+                        servers[slot] = _start_server(mcp_dir, slot, pool_dir)
+                    else:
+                        servers.pop(slot, None)
+                finally:
+                    _unlock(fd)
+
+            if now - last_used > IDLE_TIMEOUT:
+                if _any_leased(pool_dir, size):
+                    last_used = now
+                else:
+                    print("idle timeout, shutting down", flush=True)
+                    return
+            time.sleep(CHECK_INTERVAL)
+    finally:
+        for server in servers.values():
+            _stop_server(server)
+        for state_path in glob.glob(os.path.join(pool_dir, "slot-*.json")):
+            os.remove(state_path)
+        _unlock(manager_fd)
+
+
+if __name__ == "__main__":
+    parser = argparse.ArgumentParser()
+    parser.add_argument("command", choices=["serve"])
+    parser.add_argument("--dir", default=DEFAULT_DIR)
+    args = parser.parse_args()
+    signal.signal(signal.SIGTERM, lambda *_: sys.exit(0))
+    serve(args.dir)
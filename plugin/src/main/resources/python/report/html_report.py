@@ -69,7 +69,7 @@ def generate_combined_html_report(
 
         for img in screenshots:
             html += (
-                f'<img class="screenshot" '
+                f'<img class="screenshot" loading="lazy" '
                 f'src="screenshot?build={test_id}&scenario={idx}&file={img}" '
                 f'alt="Screenshot"/>\n'
             )
@@ -1,10 +1,17 @@
 #!/bin/bash
+# 사용법: bash setup.sh [venv|mcp]  (인자가 없으면 전체 설치)
+# venv 단계는 UV_PROJECT_ENVIRONMENT 가 지정되면 해당 위치에 가상환경을 만듭니다.
+TARGET=${1:-all}
+
+if [ "$TARGET" = "all" ] || [ "$TARGET" = "venv" ]; then
 echo "Installing uv..."
 pip install uv --break-system-packages
 
 echo "Syncing uv dependencies..."
-uv sync
+uv sync || exit $?
+fi
 
+if [ "$TARGET" = "all" ] || [ "$TARGET" = "mcp" ]; then
 # --- Playwright 준비: 캐시 위치 고정 ---
 cd mcp
 npx playwright install-deps
@@ -15,5 +22,6 @@ export PLAYWRIGHT_BROWSERS_PATH=./.playwright-browsers
 npx playwright install --with-deps chromium
 
 cd ..
+fi
 
 echo "Environment setup complete!"
@@ -4,7 +4,7 @@ import os
 import shutil
 from langchain_core.messages import AIMessage
 from model.schema import WebTestResult
-from typing import List
+from typing import List, Optional
 
 
 def extract_json_block(text: str) -> str:
@@ -30,7 +30,11 @@ def extract_json_from_message(msg: AIMessage) -> str:
 
 
 def save_result(
-    scenario: dict, result: WebTestResult, screenshots: List[str], scenario_dir: str
+    scenario: dict,
+    result: WebTestResult,
+    screenshots: List[str],
+    scenario_dir: str,
+    metrics: Optional[List[dict]] = None,
 ):
     payload = {
         "title": scenario.get("title", ""),
@@ -39,6 +43,11 @@ def save_result(
         "feedback": result.feedback,
         "fail": [f.model_dump() for f in result.fail] if result.fail else None,
         "screenshots": screenshots,
+        # 에이전트 단계별 LLM 호출/토큰/모델 시간/브라우저 시간 (ms)
+        "metrics": [
+            {**m, "modelMs": round(m["modelMs"], 1), "browserMs": round(m["browserMs"], 1)}
+            for m in metrics or []
+        ],
     }
     with open(os.path.join(scenario_dir, "result.json"), "w", encoding="utf-8") as f:
         json.dump(payload, f, ensure_ascii=False, indent=2)
@@ -0,0 +1,143 @@
+"""
+LLM 응답 캐시 (내용 주소 기반)
+
+에이전트가 LLM 을 호출할 때마다 모델 설정(llm_string)과 지금까지의 대화
+(시스템 프롬프트, 단계 문장, 도구 결과로 받은 페이지 스냅샷)를 정규화해 SHA-256 키를 만들고,
+같은 키의 응답이 있으면 LLM 을 부르지 않고 저장된 응답을 그대로 돌려줍니다.
+
+- 도구 호출 ID, 메시지 ID, 토큰 사용량처럼 실행마다 바뀌는 값과 스크린샷 이미지는 키에서 제외합니다.
+- 페이지 스냅샷의 시각 표시(타임스탬프 등)는 지워서 비교합니다. 요소 ref 는 응답의 도구 호출이
+  그대로 가리키므로 남겨 둡니다.
+- 페이지나 이전 응답이 하나라도 다르면 키가 달라져 LLM 을 호출합니다 (미스 후에는 이후 단계도 미스).
+- 읽기는 cache_dir(이전 빌드까지 모은 캐시), 쓰기는 out_dir(이번 실행에서 새로 받은 응답)에 합니다.
+- 재사용한 키는 out_dir/hits.txt 에 남겨, 컨트롤러가 항목의 마지막 사용 시각을 갱신하게 합니다.
+"""
+import hashlib
+import json
+import logging
+import os
+import re
+import tempfile
+from typing import Any, Optional, Sequence
+
+from langchain_core.caches import BaseCache
+from langchain_core.messages import message_to_dict, messages_from_dict
+from langchain_core.outputs import ChatGeneration
+
+logger = logging.getLogger("web_test")
+
+KEY_VERSION = 1
+
+# 키에서 제외할 값 (실행마다 달라짐)
+_VOLATILE_KEYS = {
+    "id",
+    "tool_call_id",
+    "tool_use_id",
+    "response_metadata",
+    "usage_metadata",
+    "artifact",
+}
+_TIMESTAMP = re.compile(
+    r"\d{4}-\d{2}-\d{2}[T ]\d{2}:\d{2}(:\d{2}(\.\d+)?)?(Z|[+-]\d{2}:?\d{2})?|\b\d{1,2}:\d{2}:\d{2}\b"
+)
+
+
+def _normalize(value: Any) -> Any:
+    if isinstance(value, dict):
+        # 이미지 블록은 내용 대신 자리표시자로 비교 (스크린샷은 픽셀 단위로 매번 다름)
+        if value.get("type") in ("image", "image_url"):
+            return {"type": "image"}
+        return {k: _normalize(v) for k, v in value.items() if k not in _VOLATILE_KEYS}
+    if isinstance(value, list):
+        return [_normalize(v) for v in value]
+    if isinstance(value, str):
+        return _TIMESTAMP.sub("<time>", value)
+    return value
+
+
+def cache_key(prompt: str, llm_string: str) -> str:
+    """prompt 는 langchain 이 직렬화한 메시지 목록(JSON)"""
+    try:
+        messages = [
+            {"type": m.get("id", ["?"])[-1], "kwargs": _normalize(m.get("kwargs", {}))}
+            for m in json.loads(prompt)
+        ]
+        body = json.dumps(messages, ensure_ascii=False, sort_keys=True)
+    except (ValueError, AttributeError, TypeError):
+        body = prompt
+    md = hashlib.sha256()
+    md.update(f"v{KEY_VERSION}\n".encode())
+    md.update(llm_string.encode("utf-8"))
+    md.update(b"\n")
+    md.update(body.encode("utf-8"))
+    return md.hexdigest()
+
+
+class StepCache(BaseCache):
+    """
+    mode
+      - replay: 캐시에 있으면 재사용, 없으면 LLM 호출 후 기록
+      - record: 항상 LLM 을 호출하고 응답만 기록
+    """
+
+    def __init__(self, cache_dir: Optional[str], out_dir: str, mode: str = "replay"):
+        self.cache_dir = cache_dir
+        self.out_dir = out_dir
+        self.mode = mode
+        self.hits = 0
+        self.misses = 0
+        os.makedirs(out_dir, exist_ok=True)
+
+    @staticmethod
+    def _path(root: str, key: str) -> str:
+        return os.path.join(root, key[:2], f"{key}.json")
+
+    def lookup(self, prompt: str, llm_string: str) -> Optional[Sequence[ChatGeneration]]:
+        if self.mode != "replay":
+            return None
+        key = cache_key(prompt, llm_string)
+        for root in (self.out_dir, self.cache_dir):
+            if not root:
+                continue
+            try:
+                with open(self._path(root, key), "r", encoding="utf-8") as f:
+                    entry = json.load(f)
+                generations = [
+                    ChatGeneration(message=m) for m in messages_from_dict(entry["messages"])
+                ]
+            except (OSError, ValueError, KeyError, TypeError):
+                continue
+            for g in generations:
+                # 토큰을 쓰지 않았으므로 사용량은 지우고 캐시 응답임을 표시 (metrics 집계용)
+                g.message.usage_metadata = None
+                g.message.response_metadata["mst_cache"] = True
+            self.hits += 1
+            self._record_hit(key)
+            logger.info(f"LLM cache hit: {key[:12]}")
+            return generations
+        self.misses += 1
+        return None
+
+    def _record_hit(self, key: str) -> None:
+        try:
+            with open(os.path.join(self.out_dir, "hits.txt"), "a", encoding="utf-8") as f:
+                f.write(key + "\n")
+        except OSError as e:
+            logger.warning(f"LLM cache hit log failed: {e}")
+
+    def update(self, prompt: str, llm_string: str, return_val: Sequence[Any]) -> None:
+        messages = [g.message for g in return_val if isinstance(g, ChatGeneration)]
+        if not messages or len(messages) != len(return_val):
+            return
+        key = cache_key(prompt, llm_string)
+        path = self._path(self.out_dir, key)
+        os.makedirs(os.path.dirname(path), exist_ok=True)
+        entry = {"version": KEY_VERSION, "messages": [message_to_dict(m) for m in messages]}
+        # 다른 워커가 같은 키를 동시에 쓸 수 있으므로 임시 파일 후 교체
+        fd, tmp = tempfile.mkstemp(dir=os.path.dirname(path), suffix=".tmp")
+        with os.fdopen(fd, "w", encoding="utf-8") as f:
+            json.dump(entry, f, ensure_ascii=False)
+        os.replace(tmp, path)
+
+    def clear(self, **kwargs: Any) -> None:
+        pass
@@ -0,0 +1,123 @@
+"""
+에이전트 단계별 LLM/브라우저 사용량 수집
+
+ReAct 에이전트의 한 단계는 LLM 호출 한 번과 그 응답이 요청한 브라우저 도구 실행으로 이루어집니다.
+단계마다 LLM 호출 수, 입력/출력 토큰, 모델 응답 시간, 브라우저 도구 실행 시간을 기록해
+result.json 의 metrics 로 저장합니다. 캐시에서 재사용한 응답은 토큰 0, cached=true 로 기록됩니다.
+
+도구가 끝날 때마다 돌려준 이미지를 바로 스크린샷으로 저장하고 진행 이벤트(step)를 보냅니다.
+"""
+import base64
+import os
+import time
+from typing import Any, Dict, List, Optional
+from uuid import UUID
+
+from langchain_core.callbacks import BaseCallbackHandler
+from langchain_core.outputs import LLMResult
+
+from utils import progress
+
+
+class StepMetricsCollector(BaseCallbackHandler):
+    # 호출 순서대로 단계를 나누므로 이벤트 스레드에서 바로 처리
+    run_inline = True
+
+    def __init__(self, scenario: int = 0, screenshot_dir: Optional[str] = None):
+        self.scenario = scenario
+        self.screenshot_dir = screenshot_dir
+        self.steps: List[Dict[str, Any]] = []
+        self.screenshots: List[str] = []
+        self._started: Dict[UUID, float] = {}
+        self._tools: Dict[UUID, str] = {}
+
+    def on_chat_model_start(self, serialized, messages, *, run_id: UUID, **kwargs):
+        self._started[run_id] = time.perf_counter()
+
+    def on_llm_end(self, response: LLMResult, *, run_id: UUID, **kwargs):
+        elapsed = self._elapsed_ms(run_id)
+        input_tokens = output_tokens = 0
+        cached = False
+        for gens in response.generations:
+            for gen in gens:
+                message = getattr(gen, "message", None)
+                if message is None:
+                    continue
+                usage = getattr(message, "usage_metadata", None) or {}
+                input_tokens += usage.get("input_tokens", 0)
+                output_tokens += usage.get("output_tokens", 0)
+                cached = cached or bool(message.response_metadata.get("mst_cache"))
+        self.steps.append(
+            {
+                "step": len(self.steps) + 1,
+                "action": None,
+                "llmCalls": 1,
+                "inputTokens": input_tokens,
+                "outputTokens": output_tokens,
+                "modelMs": elapsed,
+                "browserMs": 0.0,
+                "cached": cached,
+            }
+        )
+
+    def on_llm_error(self, error: BaseException, *, run_id: UUID, **kwargs):
+        self.steps.append(
+            {
+                "step": len(self.steps) + 1,
+                "action": None,
+                "llmCalls": 1,
+                "inputTokens": 0,
+                "outputTokens": 0,
+                "modelMs": self._elapsed_ms(run_id),
+                "browserMs": 0.0,
+                "cached": False,
+            }
+        )
+
+    def on_tool_start(self, serialized, input_str, *, run_id: UUID, **kwargs):
+        self._started[run_id] = time.perf_counter()
+        self._tools[run_id] = (serialized or {}).get("name") or kwargs.get("name") or "tool"
+
+    def on_tool_end(self, output, *, run_id: UUID, **kwargs):
+        self._finish_tool(run_id, True, self._save_images(output))
+
+    def on_tool_error(self, error: BaseException, *, run_id: UUID, **kwargs):
+        self._finish_tool(run_id, False, [])
+
+    def _save_images(self, output) -> List[str]:
+        saved = []
+        if not self.screenshot_dir:
+            return saved
+        for art in getattr(output, "artifact", None) or []:
+            if getattr(art, "type", "") == "image" and hasattr(art, "data"):
+                fname = f"{len(self.screenshots) + 1}.png"
+                with open(os.path.join(self.screenshot_dir, fname), "wb") as imgf:
+                    imgf.write(base64.b64decode(art.data))
+                self.screenshots.append(fname)
+                saved.append(fname)
+        return saved
+
+    def _finish_tool(self, run_id: UUID, ok: bool, screenshots: List[str]):
+        elapsed = self._elapsed_ms(run_id)
+        name = self._tools.pop(run_id, "tool")
+        if not self.steps:
+            return
+        # 도구 실행은 직전 LLM 응답이 요청한 것
+        step = self.steps[-1]
+        step["browserMs"] += elapsed
+        step["action"] = name if not step["action"] else f"{step['action']}, {name}"
+        progress.emit(
+            "step",
+            scenario=self.scenario,
+            step=step["step"],
+            action=name,
+            ok=ok,
+            modelMs=round(step["modelMs"], 1),
+            browserMs=round(elapsed, 1),
+            cached=step["cached"],
+            screenshots=screenshots,
+        )
+
+    def _elapsed_ms(self, run_id: UUID) -> float:
+        start = self._started.pop(run_id, None)
+        return (time.perf_counter() - start) * 1000 if start is not None else 0.0
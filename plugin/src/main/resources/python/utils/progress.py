@@ -0,0 +1,25 @@
+"""
+Jenkins 로 보내는 진행 이벤트 (한 줄짜리 JSON)
+
+MST_PROGRESS 환경 변수가 설정된 경우에만 표준 출력에 `MST-EVENT {json}` 형태로 씁니다.
+runMST 는 이 줄을 빌드 로그 대신 진행 상황 페이지로 보냅니다.
+"""
+import json
+import os
+import sys
+import threading
+
+PREFIX = "MST-EVENT "
+ENABLED = bool(os.environ.get("MST_PROGRESS"))
+
+_lock = threading.Lock()
+
+
+def emit(event: str, **fields):
+    if not ENABLED:
+        return
+    line = PREFIX + json.dumps({"event": event, **fields}, ensure_ascii=False)
+    # 병렬 워커의 이벤트가 한 줄 안에서 섞이지 않도록 한 번에 씀
+    with _lock:
+        sys.stdout.write(line + "\n")
+        sys.stdout.flush()
@@ -38,6 +38,12 @@ interface TestReport {
   htmlReportURL?: string;
 }
 
+// MST_PROGRESS 가 설정되면 Jenkins 진행 페이지로 보낼 이벤트를 한 줄 JSON 으로 출력
+function emitProgress(event: string, fields: Record<string, unknown>) {
+  if (!process.env.MST_PROGRESS) return;
+  process.stdout.write(`MST-EVENT ${JSON.stringify({ event, ...fields })}\n`);
+}
+
 function parseCmdArgs() {
   const args = process.argv.slice(2);
   const result: { [key: string]: string | boolean } = {};
@@ -169,9 +175,11 @@ export class AdaptivePlaywrightExecutor {
       .replace(",", "");
     const cmdArgs = parseCmdArgs();
     this.buildNumber = cmdArgs.build ? `${cmdArgs.build}` : "";
+    // 같은 빌드에서 여러 스크립트를 실행할 때 폴더가 겹치지 않도록 --run 값을 덧붙임
+    const runSuffix = typeof cmdArgs.run === "string" ? `-${cmdArgs.run}` : "";
     this.testRunDir = path.join(
       this.outputDir,
-      `test-run-${timestamp}_${this.buildNumber}`
+      `test-run-${timestamp}${runSuffix}_${this.buildNumber}`
     );
     this.screenshotsDir = path.join(this.testRunDir, "1", "screenshots");
     this.mcpClient = new MCPClient();
@@ -267,6 +275,12 @@ export class AdaptivePlaywrightExecutor {
 
     this.testReport.startTime = new Date().toISOString();
     this.testReport.totalSteps = steps.length;
+    emitProgress("run_start", { build: path.basename(this.testRunDir), scenarios: 1 });
+    emitProgress("scenario_start", {
+      scenario: 1,
+      title: this.testReport.testName,
+      steps: steps.length,
+    });
 
     for (let i = 0; i < steps.length; i++) {
       const step = steps[i];
@@ -413,6 +427,14 @@ export class AdaptivePlaywrightExecutor {
         new Date(stepResult.endTime).getTime() -
         new Date(stepResult.startTime).getTime();
       this.testReport.steps.push(stepResult);
+      emitProgress("step", {
+        scenario: 1,
+        step: i + 1,
+        action: step.description,
+        ok: stepResult.status === "success",
+        durationMs: stepResult.duration,
+        screenshots: stepResult.screenshot ? [path.basename(stepResult.screenshot)] : [],
+      });
 
       // 각 단계 사이에 대기
       await new Promise((resolve) => setTimeout(resolve, 1000));
@@ -423,6 +445,12 @@ export class AdaptivePlaywrightExecutor {
       new Date(this.testReport.endTime).getTime() -
       new Date(this.testReport.startTime).getTime();
 
+    emitProgress("scenario_end", {
+      scenario: 1,
+      status: this.testReport.failedSteps === 0,
+      duration: this.testReport.duration / 1000,
+    });
+
     // 최종 테스트 결과에 대한 AI 코멘트
     console.log("\n테스트 실행 완료, AI 분석 결과 생성 중...");
     this.testReport.finalComment = await this.getFinalTestComment();
@@ -431,6 +459,7 @@ export class AdaptivePlaywrightExecutor {
     console.log("HTML 보고서 생성 중...");
     const htmlReportPath = await this.generatePlaywrightReport();
     this.testReport.htmlReportURL = htmlReportPath;
+    emitProgress("run_end", { build: path.basename(this.testRunDir) });
 
     // 테스트 리포트 저장
     // const reportPath = path.join(this.testRunDir, `test-report.json`);
@@ -1312,7 +1341,7 @@ ${this.testReport.steps
             const screenshotHtml = step.screenshot
                 ? `<div class="screenshot">
                <img src="screenshot?build=${path.basename(this.testRunDir)}&scenario=1&file=${path.basename(step.screenshot)}" 
-                    alt="Screenshot" width="800" />
+                    alt="Screenshot" width="800" loading="lazy" />
              </div>`
                 : "";
 